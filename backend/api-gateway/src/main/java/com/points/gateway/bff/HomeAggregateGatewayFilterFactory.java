@@ -0,0 +1,238 @@
+package com.points.gateway.bff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.points.gateway.lb.UpstreamInstance;
+import com.points.gateway.lb.UpstreamRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 首页聚合接口（路由配置 - HomeAggregate 开启）
+ *
+ * 1. 并行请求积分余额、产品列表和积分明细，合并为一个响应，客户端一次请求即可渲染首页
+ * 2. 每个部分的 data 原样取自对应服务的响应，积分明细只保留最近 records-limit 条
+ * 3. 所有请求共用 deadline，超时或失败的部分为 null，错误信息放在 errors 中并标记 partial=true
+ * 4. 未登录时余额和明细返回服务的 401 错误信息，产品列表正常返回
+ */
+@Slf4j
+@Component
+public class HomeAggregateGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<HomeAggregateGatewayFilterFactory.Config> {
+
+    private final UpstreamRegistry registry;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+
+    public HomeAggregateGatewayFilterFactory(UpstreamRegistry registry,
+                                             ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                             ObjectMapper objectMapper,
+                                             MeterRegistry meterRegistry,
+                                             WebClient.Builder webClientBuilder) {
+        super(Config.class);
+        this.registry = registry;
+        this.headersFilters = headersFilters;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> aggregate(exchange, config);
+    }
+
+    private Mono<Void> aggregate(ServerWebExchange exchange, Config config) {
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        headers.remove(HttpHeaders.HOST);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        Map<String, String> query = exchange.getRequest().getQueryParams().toSingleValueMap();
+        String recordsPath = UriComponentsBuilder.fromPath("/api/points/records")
+                .queryParam("type", query.getOrDefault("type", "all"))
+                .queryParam("timeRange", query.getOrDefault("timeRange", "30days"))
+                .encode()
+                .build()
+                .toUriString();
+
+        Mono<Section> balance = fetch("balance", config.getPointsService(), "/api/points/balance", headers, config);
+        Mono<Section> products = fetch("products", config.getProductService(), "/api/products", headers, config);
+        Mono<Section> records = fetch("records", config.getPointsService(), recordsPath, headers, config)
+                .map(section -> section.limit(config.getRecordsLimit()));
+
+        return Mono.zip(balance, products, records)
+                .flatMap(sections -> write(exchange, List.of(sections.getT1(), sections.getT2(), sections.getT3())));
+    }
+
+    /**
+     * 请求一个服务接口，取响应的 data；超时、连接失败或响应 code 不是 200 时返回失败
+     */
+    private Mono<Section> fetch(String name, String serviceId, String pathAndQuery, HttpHeaders headers,
+                                Config config) {
+        UpstreamInstance instance = registry.choose(serviceId, null);
+        if (instance == null) {
+            return Mono.just(failed(name, "unavailable", "没有可用的服务实例"));
+        }
+        URI uri = instance.getUri().resolve(pathAndQuery);
+        Mono<Reply> call = webClient.get()
+                .uri(uri)
+                .headers(h -> h.addAll(headers))
+                .exchangeToMono(response -> response.bodyToMono(JsonNode.class)
+                        .defaultIfEmpty(NullNode.getInstance())
+                        .map(body -> new Reply(response.statusCode(), body)));
+        return registry.track(instance, call, Reply::status)
+                .timeout(config.getDeadline())
+                .map(reply -> {
+                    JsonNode code = reply.body().get("code");
+                    if (code != null && code.asInt() == HttpStatus.OK.value()) {
+                        counter(name, "ok").increment();
+                        return new Section(name, reply.body().get("data"), null);
+                    }
+                    String message = reply.body().path("message").asText("");
+                    return failed(name, "error", message.isEmpty() ? "服务返回 " + reply.status() : message);
+                })
+                .onErrorResume(TimeoutException.class, e -> Mono.just(failed(name, "timeout", "请求超时")))
+                .onErrorResume(e -> {
+                    log.warn("首页聚合请求 {} 失败: {}", uri, e.getMessage());
+                    return Mono.just(failed(name, "error", "服务暂时不可用"));
+                });
+    }
+
+    private Section failed(String name, String result, String message) {
+        counter(name, result).increment();
+        return new Section(name, null, message);
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, List<Section> sections) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Section section : sections) {
+            data.put(section.name(), section.data());
+            if (section.error() != null) {
+                errors.put(section.name(), section.error());
+            }
+        }
+        data.put("partial", !errors.isEmpty());
+        data.put("errors", errors);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", HttpStatus.OK.value());
+        body.put("message", "操作成功");
+        body.put("data", data);
+        body.put("timestamp", System.currentTimeMillis());
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8));
+        response.getHeaders().setCacheControl("private, no-store");
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(body))
+                .flatMap(bytes -> response.writeWith(Mono.just(response.bufferFactory().wrap(bytes))));
+    }
+
+    private Counter counter(String section, String result) {
+        return Counter.builder("gateway.home.sections")
+                .tag("section", section)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Reply(HttpStatusCode status, JsonNode body) {
+    }
+
+    private record Section(String name, JsonNode data, String error) {
+
+        /**
+         * 列表只保留前 limit 条（积分明细按时间倒序返回）
+         */
+        Section limit(int limit) {
+            if (data instanceof ArrayNode array && array.size() > limit) {
+                ArrayNode limited = array.arrayNode();
+                for (int i = 0; i < limit; i++) {
+                    limited.add(array.get(i));
+                }
+                return new Section(name, limited, error);
+            }
+            return this;
+        }
+    }
+
+    /**
+     * 首页聚合配置
+     */
+    public static class Config {
+
+        /**
+         * 所有后端请求的截止时间，超过后返回已有的部分结果
+         */
+        private Duration deadline = Duration.ofMillis(800);
+
+        /**
+         * 返回的积分明细条数
+         */
+        private int recordsLimit = 10;
+
+        private String pointsService = "points-service";
+
+        private String productService = "product-service";
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+
+        public int getRecordsLimit() {
+            return recordsLimit;
+        }
+
+        public void setRecordsLimit(int recordsLimit) {
+            this.recordsLimit = recordsLimit;
+        }
+
+        public String getPointsService() {
+            return pointsService;
+        }
+
+        public void setPointsService(String pointsService) {
+            this.pointsService = pointsService;
+        }
+
+        public String getProductService() {
+            return productService;
+        }
+
+        public void setProductService(String productService) {
+            this.productService = productService;
+        }
+    }
+}
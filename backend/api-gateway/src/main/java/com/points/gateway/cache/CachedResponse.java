@@ -0,0 +1,27 @@
+package com.points.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 缓存的响应（状态码、需要回放的响应头和完整响应体）
+ */
+final class CachedResponse {
+
+    final int status;
+    final HttpHeaders headers;
+    final byte[] body;
+    final long createdAt;
+    final long expiresAt;
+
+    CachedResponse(int status, HttpHeaders headers, byte[] body, long createdAt, long expiresAt) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,411 @@
+package com.points.gateway.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.points.gateway.filter.AuthenticationGlobalFilter;
+import com.points.gateway.security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 网关响应缓存过滤器（路由配置 - ResponseCache=5s 开启）
+ *
+ * 1. 只缓存 GET 请求的 200 响应，缓存 key 为路由 + 路径 + 查询参数；
+ *    JSON 响应体顶层 code 不是 200（ApiResponse 业务失败，HTTP 状态仍为 200）时不缓存
+ * 2. 响应 Cache-Control 含 no-store/no-cache/private 时不缓存，max-age/s-maxage 小于配置的 ttl 时按其缓存
+ * 3. 响应 Vary 含 Authorization 时按用户（未登录为同一个匿名用户）分别缓存；
+ *    Vary 含 *或其他请求头（CORS 相关除外）时不缓存
+ * 4. 同一 key 未命中时只有第一个请求访问后端，其他请求等待其结果（超过 collapse-timeout-ms 则自行访问后端）
+ * 5. 请求 Cache-Control: no-cache 时跳过缓存直接访问后端并刷新缓存，no-store 时既不读也不写
+ * 缓存条目数量和单个响应大小有上限，命中时响应头带 X-Cache: HIT
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 命中时回放的响应头；CORS 相关头由网关按当前请求重新生成，不能回放
+     */
+    private static final Set<String> REPLAYED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED);
+
+    /**
+     * 可以忽略的 Vary 值（由网关或服务的 CORS 处理添加，缓存不回放 CORS 头）
+     */
+    private static final Set<String> IGNORED_VARY = Set.of(
+            "origin", "access-control-request-method", "access-control-request-headers", "accept-encoding");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.response-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${gateway.response-cache.max-body-bytes:1048576}")
+    private int maxBodyBytes;
+
+    @Value("${gateway.response-cache.collapse-timeout-ms:5000}")
+    private long collapseTimeoutMillis;
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedResponse>> inflight = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("gateway.response_cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    /**
+     * 在 NettyWriteResponseFilter 之前执行，才能截获后端响应体
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config),
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        String routeId = routeId(exchange);
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        String requestCacheControl = joinLowerCase(request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL));
+        if (requestCacheControl.contains("no-store")) {
+            counter(routeId, "bypass").increment();
+            return chain.filter(exchange);
+        }
+        boolean refresh = requestCacheControl.contains("no-cache");
+
+        String rawQuery = request.getURI().getRawQuery();
+        String baseKey = routeId + " " + request.getURI().getRawPath() + (rawQuery != null ? "?" + rawQuery : "");
+        String userKey = baseKey + "\n" + identity(exchange);
+
+        if (!refresh) {
+            CachedResponse cached = lookup(baseKey, userKey, System.currentTimeMillis());
+            if (cached != null) {
+                counter(routeId, "hit").increment();
+                return writeCached(exchange, cached);
+            }
+        }
+
+        CompletableFuture<CachedResponse> future = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> leader = refresh ? null : inflight.putIfAbsent(userKey, future);
+        if (leader != null) {
+            counter(routeId, "collapsed").increment();
+            return Mono.fromFuture(leader, true)
+                    .map(Optional::of)
+                    .timeout(Duration.ofMillis(collapseTimeoutMillis))
+                    .onErrorResume(e -> Mono.just(Optional.empty()))
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cached -> cached.isPresent()
+                            ? writeCached(exchange, cached.get())
+                            : chain.filter(exchange));
+        }
+
+        counter(routeId, "miss").increment();
+        CachingResponse response = new CachingResponse(exchange.getResponse(), config, baseKey, userKey, future);
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> {
+                    if (!refresh) {
+                        inflight.remove(userKey, future);
+                    }
+                    // 响应不可缓存或出错时通知等待的请求自行访问后端
+                    future.complete(null);
+                });
+    }
+
+    private CachedResponse lookup(String baseKey, String userKey, long now) {
+        CachedResponse cached = entries.get(baseKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            entries.remove(baseKey, cached);
+        }
+        cached = entries.get(userKey);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            entries.remove(userKey, cached);
+        }
+        return null;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status));
+        HttpHeaders headers = response.getHeaders();
+        cached.headers.forEach(headers::addAll);
+        headers.set(HttpHeaders.AGE, String.valueOf((System.currentTimeMillis() - cached.createdAt) / 1000));
+        headers.set("X-Cache", "HIT");
+        headers.setContentLength(cached.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+    }
+
+    private void put(String key, CachedResponse response) {
+        if (entries.size() >= maxEntries && !makeRoom(response.createdAt)) {
+            return;
+        }
+        entries.put(key, response);
+    }
+
+    /**
+     * 缓存满时先清理过期条目，仍然不足则淘汰约 1/8 的条目
+     */
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            entries.values().removeIf(entry -> entry.isExpired(now));
+            int target = maxEntries - Math.max(1, maxEntries / 8);
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return entries.size() < maxEntries;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 响应可缓存时返回缓存时间（毫秒），否则返回 -1
+     */
+    private static long cacheTtl(HttpHeaders headers, Config config) {
+        String cacheControl = joinLowerCase(headers.getOrEmpty(HttpHeaders.CACHE_CONTROL));
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")
+                || cacheControl.contains("private")) {
+            return -1;
+        }
+        long ttl = config.getTtl().toMillis();
+        long maxAge = directive(cacheControl, "s-maxage");
+        if (maxAge < 0) {
+            maxAge = directive(cacheControl, "max-age");
+        }
+        if (maxAge >= 0) {
+            ttl = Math.min(ttl, maxAge * 1000);
+        }
+        return ttl > 0 ? ttl : -1;
+    }
+
+    /**
+     * JSON 响应体的顶层 code 字段存在且不是 200 时返回 false，只读到 code 字段为止，不解析整个响应体
+     */
+    private static boolean isSuccessBody(HttpHeaders headers, byte[] body) {
+        MediaType contentType = headers.getContentType();
+        if (contentType == null || !contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return true;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return true;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("code".equals(name)) {
+                    return value != JsonToken.VALUE_NUMBER_INT || parser.getIntValue() == HttpStatus.OK.value();
+                }
+                parser.skipChildren();
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析 Cache-Control 中的数值指令，不存在或格式错误时返回 -1
+     */
+    private static long directive(String cacheControl, String name) {
+        for (String part : cacheControl.split(",")) {
+            String directive = part.trim();
+            if (directive.startsWith(name + "=")) {
+                try {
+                    return Long.parseLong(directive.substring(name.length() + 1).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String joinLowerCase(List<String> values) {
+        return values.isEmpty() ? "" : String.join(",", values).toLowerCase(Locale.ROOT);
+    }
+
+    private static String identity(ServerWebExchange exchange) {
+        VerifiedToken token = exchange.getAttribute(AuthenticationGlobalFilter.VERIFIED_TOKEN_ATTR);
+        return token != null ? "user:" + token.getUserId() : ANONYMOUS;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Counter counter(String routeId, String result) {
+        return Counter.builder("gateway.response_cache.requests")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 截获后端响应体，可缓存时写入缓存并通知等待的请求
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final Config config;
+        private final String baseKey;
+        private final String userKey;
+        private final CompletableFuture<CachedResponse> future;
+
+        CachingResponse(ServerHttpResponse delegate, Config config, String baseKey, String userKey,
+                        CompletableFuture<CachedResponse> future) {
+            super(delegate);
+            this.config = config;
+            this.baseKey = baseKey;
+            this.userKey = userKey;
+            this.future = future;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Boolean varyByUser = varyByUser(headers);
+            long ttl = HttpStatus.OK.equals(getStatusCode()) && varyByUser != null ? cacheTtl(headers, config) : -1;
+            if (ttl < 0) {
+                return super.writeWith(body);
+            }
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+                if (bytes.length <= maxBodyBytes && isSuccessBody(headers, bytes)) {
+                    store(headers, bytes, ttl, varyByUser);
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        private void store(HttpHeaders headers, byte[] bytes, long ttl, boolean varyByUser) {
+            HttpHeaders replayed = new HttpHeaders();
+            for (String name : REPLAYED_HEADERS) {
+                List<String> values = headers.get(name);
+                if (values != null) {
+                    replayed.put(name, List.copyOf(values));
+                }
+            }
+            long now = System.currentTimeMillis();
+            CachedResponse cached = new CachedResponse(HttpStatus.OK.value(), replayed, bytes, now, now + ttl);
+            if (varyByUser) {
+                entries.remove(baseKey);
+                put(userKey, cached);
+            } else {
+                put(baseKey, cached);
+            }
+            future.complete(cached);
+        }
+
+        /**
+         * @return 是否按用户区分缓存；响应不能缓存时返回 null
+         */
+        private Boolean varyByUser(HttpHeaders headers) {
+            boolean byUser = false;
+            for (String value : headers.getOrEmpty(HttpHeaders.VARY)) {
+                for (String name : value.split(",")) {
+                    String header = name.trim().toLowerCase(Locale.ROOT);
+                    if (header.isEmpty() || IGNORED_VARY.contains(header)) {
+                        continue;
+                    }
+                    if (header.equals("authorization")) {
+                        byUser = true;
+                    } else {
+                        return null;
+                    }
+                }
+            }
+            return byUser;
+        }
+    }
+
+    /**
+     * 路由缓存配置
+     */
+    public static class Config {
+
+        /**
+         * 缓存时间（后端 Cache-Control 的 max-age 更短时按 max-age）
+         */
+        private Duration ttl = Duration.ofSeconds(5);
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.points.gateway.filter;
+
+import com.points.gateway.security.GatewayTokenVerifier;
+import com.points.gateway.security.InternalIdentitySigner;
+import com.points.gateway.security.VerifiedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * 网关认证过滤器
+ * 1. 始终移除客户端传入的内部身份头，防止伪造
+ * 2. 携带 Bearer Token 时在网关验签一次，通过后转发带签名的 X-User-* 头
+ * 3. 不拒绝请求：Token无效时原样转发，由后端服务按原有逻辑返回 401
+ * 4. 验签结果保存在 exchange 属性 VERIFIED_TOKEN_ATTR 中，供限流等后续过滤器按用户区分
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticationGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String VERIFIED_TOKEN_ATTR = AuthenticationGlobalFilter.class.getName() + ".verifiedToken";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final GatewayTokenVerifier tokenVerifier;
+    private final InternalIdentitySigner signer;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        VerifiedToken verified = null;
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            verified = tokenVerifier.verify(header.substring(BEARER_PREFIX.length()));
+        }
+        if (verified != null) {
+            exchange.getAttributes().put(VERIFIED_TOKEN_ATTR, verified);
+        }
+
+        VerifiedToken identity = signer.isEnabled() ? verified : null;
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(InternalIdentitySigner.HEADER_USER_ID);
+                    headers.remove(InternalIdentitySigner.HEADER_USER_NAME);
+                    headers.remove(InternalIdentitySigner.HEADER_USER_ROLE);
+                    headers.remove(InternalIdentitySigner.HEADER_EXPIRES);
+                    headers.remove(InternalIdentitySigner.HEADER_TOKEN_ID);
+                    headers.remove(InternalIdentitySigner.HEADER_TIMESTAMP);
+                    headers.remove(InternalIdentitySigner.HEADER_SIGNATURE);
+                    if (identity != null) {
+                        addIdentityHeaders(headers, identity);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    private void addIdentityHeaders(HttpHeaders headers, VerifiedToken identity) {
+        long timestamp = System.currentTimeMillis();
+        String username = InternalIdentitySigner.encodeUsername(identity.getUsername());
+        String role = identity.getRole() != null ? identity.getRole() : "";
+        headers.set(InternalIdentitySigner.HEADER_USER_ID, identity.getUserId());
+        headers.set(InternalIdentitySigner.HEADER_USER_NAME, username);
+        headers.set(InternalIdentitySigner.HEADER_USER_ROLE, role);
+        headers.set(InternalIdentitySigner.HEADER_EXPIRES, String.valueOf(identity.getExpiresAt()));
+        String tokenId = identity.getTokenId() != null ? identity.getTokenId() : "";
+        headers.set(InternalIdentitySigner.HEADER_TOKEN_ID, tokenId);
+        headers.set(InternalIdentitySigner.HEADER_TIMESTAMP, String.valueOf(timestamp));
+        headers.set(InternalIdentitySigner.HEADER_SIGNATURE,
+                signer.sign(identity.getUserId(), username, role, identity.getExpiresAt(), tokenId, timestamp));
+    }
+
+    /**
+     * 在路由转发之前执行
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+}
@@ -0,0 +1,68 @@
+package com.points.gateway.filter;
+
+import com.points.gateway.lb.UpstreamInstance;
+import com.points.gateway.lb.UpstreamRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * 负载均衡过滤器
+ * 把路由的 lb://<服务名> 地址替换为 UpstreamRegistry 选出的实例地址，
+ * 并记录实例正在处理的请求数和请求结果（连接失败、超时和 5xx 视为失败）
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String UPSTREAM_INSTANCE_ATTR = LoadBalancerGlobalFilter.class.getName() + ".instance";
+
+    private static final String LB_SCHEME = "lb";
+
+    private final UpstreamRegistry registry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || !LB_SCHEME.equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+        ServerWebExchangeUtils.addOriginalRequestUrl(exchange, url);
+        String serviceId = url.getHost();
+        UpstreamInstance instance = registry.choose(serviceId, null);
+        if (instance == null) {
+            return Mono.error(NotFoundException.create(false, "没有可用的服务实例: " + serviceId));
+        }
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, reconstruct(url, instance));
+        exchange.getAttributes().put(UPSTREAM_INSTANCE_ATTR, instance);
+        return registry.track(instance, chain.filter(exchange), v -> exchange.getResponse().getStatusCode());
+    }
+
+    public static URI reconstruct(URI url, UpstreamInstance instance) {
+        URI target = instance.getUri();
+        return UriComponentsBuilder.fromUri(url)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    /**
+     * 与 Spring Cloud LoadBalancer 的过滤器顺序相同：在路由地址确定之后、转发之前执行
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER;
+    }
+}
@@ -0,0 +1,359 @@
+package com.points.gateway.lb;
+
+import com.points.gateway.filter.LoadBalancerGlobalFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 对冲请求过滤器（路由配置 - HedgedRequest 开启，只用于幂等的 GET 路由）
+ *
+ * 1. GET 请求由本过滤器直接转发到 lb://<服务名> 的实例，其他方法按普通路由转发
+ * 2. 第一个请求超过该路由近期的 p95 耗时仍未返回时，向另一个实例再发一个请求，先返回的结果生效，另一个被取消；
+ *    样本不足 min-samples 时按 initial-hedge-delay 发送
+ * 3. 两个请求都连接失败或返回 502/503/504 时换实例重试（只有一个实例时重试该实例），最多 retries 次，
+ *    重试用尽或超时时，如果后端返回过 502/503/504 响应，原样返回最后一个响应
+ * 4. 整个过程不超过路由 metadata 的 response-timeout，超时且没有后端响应时返回 504
+ * 对冲次数和胜出情况见 gateway.hedge.requests 指标
+ */
+@Component
+public class HedgedRequestGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<HedgedRequestGatewayFilterFactory.Config> {
+
+    private static final String LB_SCHEME = "lb";
+
+    private static final Set<Integer> RETRYABLE_STATUS = Set.of(
+            HttpStatus.BAD_GATEWAY.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            HttpStatus.GATEWAY_TIMEOUT.value());
+
+    private final UpstreamRegistry registry;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+
+    @Value("${spring.cloud.gateway.httpclient.response-timeout:5s}")
+    private Duration defaultTimeout;
+
+    private final Map<String, LatencyStats> latencies = new ConcurrentHashMap<>();
+
+    public HedgedRequestGatewayFilterFactory(UpstreamRegistry registry,
+                                             ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                             MeterRegistry meterRegistry,
+                                             WebClient.Builder webClientBuilder,
+                                             @Value("${gateway.hedge.max-body-bytes:1048576}") int maxBodyBytes) {
+        super(Config.class);
+        this.registry = registry;
+        this.headersFilters = headersFilters;
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClientBuilder
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxBodyBytes))
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> filter(exchange, chain, config);
+    }
+
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (exchange.getRequest().getMethod() != HttpMethod.GET
+                || route == null || !LB_SCHEME.equals(route.getUri().getScheme())) {
+            return chain.filter(exchange);
+        }
+        String serviceId = route.getUri().getHost();
+        String routeId = route.getId();
+        Duration timeout = timeout(route);
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        headers.remove(HttpHeaders.HOST);
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+
+        AtomicReference<UpstreamInstance> lastTried = new AtomicReference<>();
+        AtomicReference<ResponseEntity<byte[]>> lastResponse = new AtomicReference<>();
+        return Mono.defer(() -> hedged(exchange, headers, serviceId, routeId, lastTried, lastResponse, config))
+                .retryWhen(Retry.max(config.getRetries())
+                        .filter(HedgedRequestGatewayFilterFactory::isRetryable)
+                        .doBeforeRetry(signal -> counter("gateway.upstream.retries", routeId, null).increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .timeout(timeout)
+                // 后端的错误响应比网关生成的错误更有用（带有服务的错误信息）
+                .onErrorResume(e -> lastResponse.get() != null, e -> Mono.just(lastResponse.get()))
+                .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        "Response took longer than timeout: " + timeout, e))
+                .onErrorMap(WebClientRequestException.class, e -> new ResponseStatusException(
+                        HttpStatus.SERVICE_UNAVAILABLE, "服务暂时不可用: " + serviceId, e))
+                .flatMap(response -> write(exchange, response));
+    }
+
+    /**
+     * 向一个实例发出请求，超过对冲延迟仍未返回时再向另一个实例发出请求，取先成功的一个
+     */
+    private Mono<ResponseEntity<byte[]>> hedged(ServerWebExchange exchange, HttpHeaders headers, String serviceId,
+                                                String routeId, AtomicReference<UpstreamInstance> lastTried,
+                                                AtomicReference<ResponseEntity<byte[]>> lastResponse,
+                                                Config config) {
+        UpstreamInstance primary = choose(serviceId, lastTried.get());
+        if (primary == null) {
+            return Mono.error(NotFoundException.create(false, "没有可用的服务实例: " + serviceId));
+        }
+        lastTried.set(primary);
+        LatencyStats stats = latencies.computeIfAbsent(routeId, this::createStats);
+        Mono<ResponseEntity<byte[]>> first = attempt(exchange, headers, primary, stats, lastResponse);
+        if (!config.isHedge() || registry.getInstances(serviceId).size() < 2) {
+            return first;
+        }
+
+        AtomicBoolean fired = new AtomicBoolean();
+        Mono<ResponseEntity<byte[]>> second = Mono.delay(stats.hedgeDelay(config))
+                .then(Mono.defer(() -> {
+                    UpstreamInstance backup = registry.choose(serviceId, primary);
+                    if (backup == null) {
+                        return Mono.empty();
+                    }
+                    fired.set(true);
+                    lastTried.set(backup);
+                    return attempt(exchange, headers, backup, stats, lastResponse);
+                }));
+        return Mono.firstWithValue(
+                        first.doOnNext(r -> counter("gateway.hedge.requests", routeId,
+                                fired.get() ? "primary_won" : "not_fired").increment()),
+                        second.doOnNext(r -> counter("gateway.hedge.requests", routeId, "hedge_won").increment()))
+                .onErrorMap(HedgedRequestGatewayFilterFactory::firstFailure);
+    }
+
+    /**
+     * 重试时优先选择其他实例，服务只有一个实例时重试该实例
+     */
+    private UpstreamInstance choose(String serviceId, UpstreamInstance previous) {
+        UpstreamInstance instance = registry.choose(serviceId, previous);
+        if (instance == null && previous != null) {
+            instance = registry.choose(serviceId, null);
+        }
+        return instance;
+    }
+
+    private Mono<ResponseEntity<byte[]>> attempt(ServerWebExchange exchange, HttpHeaders headers,
+                                                 UpstreamInstance instance, LatencyStats stats,
+                                                 AtomicReference<ResponseEntity<byte[]>> lastResponse) {
+        Mono<ResponseEntity<byte[]>> call = webClient.get()
+                .uri(LoadBalancerGlobalFilter.reconstruct(exchange.getRequest().getURI(), instance))
+                .headers(h -> h.addAll(headers))
+                .exchangeToMono(response -> response.toEntity(byte[].class));
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return registry.track(instance, call, ResponseEntity::getStatusCode)
+                    .flatMap(response -> {
+                        if (RETRYABLE_STATUS.contains(response.getStatusCode().value())) {
+                            lastResponse.set(response);
+                            return Mono.error(new RetryableStatusException(response));
+                        }
+                        stats.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return Mono.just(response);
+                    });
+        });
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(upstream.getStatusCode());
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstream.getHeaders(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(headers);
+        byte[] body = upstream.getBody();
+        if (body == null) {
+            response.getHeaders().setContentLength(0);
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    /**
+     * 与 NettyRoutingFilter 相同，优先使用路由 metadata 的 response-timeout（毫秒）
+     */
+    private Duration timeout(Route route) {
+        Object value = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (value != null) {
+            return Duration.ofMillis(Long.parseLong(value.toString()));
+        }
+        return defaultTimeout;
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof RetryableStatusException || e instanceof WebClientRequestException;
+    }
+
+    /**
+     * 两个请求都失败时 firstWithValue 返回组合异常，取第一个请求的异常判断是否重试
+     */
+    private static Throwable firstFailure(Throwable e) {
+        List<Throwable> failures = Exceptions.unwrapMultiple(e.getCause() != null ? e.getCause() : e);
+        return failures.isEmpty() ? e : failures.get(0);
+    }
+
+    private LatencyStats createStats(String routeId) {
+        return new LatencyStats(Timer.builder("gateway.upstream.latency")
+                .tag("route", routeId)
+                .publishPercentiles(0.95)
+                .register(meterRegistry));
+    }
+
+    private Counter counter(String name, String routeId, String result) {
+        Counter.Builder builder = Counter.builder(name).tag("route", routeId);
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    /**
+     * 路由近期单次请求耗时，对冲延迟取其 p95（每秒最多计算一次）
+     */
+    private static final class LatencyStats {
+
+        private static final long REFRESH_INTERVAL_MILLIS = 1000;
+
+        private final Timer timer;
+        private volatile long p95Millis = -1;
+        private volatile long refreshedAt;
+
+        LatencyStats(Timer timer) {
+            this.timer = timer;
+        }
+
+        Duration hedgeDelay(Config config) {
+            long now = System.currentTimeMillis();
+            if (now - refreshedAt >= REFRESH_INTERVAL_MILLIS) {
+                refreshedAt = now;
+                p95Millis = timer.count() >= config.getMinSamples() ? p95(timer) : -1;
+            }
+            long delay = p95Millis >= 0 ? p95Millis : config.getInitialHedgeDelay().toMillis();
+            return Duration.ofMillis(Math.max(delay, config.getMinHedgeDelay().toMillis()));
+        }
+
+        private static long p95(Timer timer) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.95) {
+                    return (long) value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 后端返回可重试的状态码（响应本身记录在 lastResponse 中，重试用尽时返回给客户端）
+     */
+    private static final class RetryableStatusException extends RuntimeException {
+
+        RetryableStatusException(ResponseEntity<byte[]> response) {
+            super("后端返回 " + response.getStatusCode(), null, false, false);
+        }
+    }
+
+    /**
+     * 路由对冲配置
+     */
+    public static class Config {
+
+        /**
+         * 是否发送对冲请求（服务只有一个实例时不发送）
+         */
+        private boolean hedge = true;
+
+        /**
+         * 连接失败或 502/503/504 时的重试次数
+         */
+        private int retries = 1;
+
+        /**
+         * 耗时样本不足时的对冲延迟
+         */
+        private Duration initialHedgeDelay = Duration.ofMillis(200);
+
+        /**
+         * 对冲延迟下限，避免 p95 很小时几乎每个请求都发两次
+         */
+        private Duration minHedgeDelay = Duration.ofMillis(20);
+
+        /**
+         * 按 p95 计算对冲延迟需要的最少样本数
+         */
+        private long minSamples = 20;
+
+        public boolean isHedge() {
+            return hedge;
+        }
+
+        public void setHedge(boolean hedge) {
+            this.hedge = hedge;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public Duration getInitialHedgeDelay() {
+            return initialHedgeDelay;
+        }
+
+        public void setInitialHedgeDelay(Duration initialHedgeDelay) {
+            this.initialHedgeDelay = initialHedgeDelay;
+        }
+
+        public Duration getMinHedgeDelay() {
+            return minHedgeDelay;
+        }
+
+        public void setMinHedgeDelay(Duration minHedgeDelay) {
+            this.minHedgeDelay = minHedgeDelay;
+        }
+
+        public long getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(long minSamples) {
+            this.minSamples = minSamples;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.points.gateway.lb;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * 主动健康检查
+ * 定期请求每个实例的 health-check.path，连续 unhealthy-threshold 次失败标记为不健康，
+ * 不健康的实例连续 healthy-threshold 次成功后恢复
+ */
+@Slf4j
+@Component
+public class UpstreamHealthChecker {
+
+    private final UpstreamRegistry registry;
+    private final WebClient webClient;
+
+    @Value("${gateway.load-balancer.health-check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.load-balancer.health-check.path:/actuator/health}")
+    private String path;
+
+    @Value("${gateway.load-balancer.health-check.interval-ms:5000}")
+    private long intervalMillis;
+
+    @Value("${gateway.load-balancer.health-check.timeout-ms:1000}")
+    private long timeoutMillis;
+
+    @Value("${gateway.load-balancer.health-check.unhealthy-threshold:2}")
+    private int unhealthyThreshold;
+
+    @Value("${gateway.load-balancer.health-check.healthy-threshold:1}")
+    private int healthyThreshold;
+
+    private Disposable task;
+
+    public UpstreamHealthChecker(UpstreamRegistry registry, WebClient.Builder webClientBuilder) {
+        this.registry = registry;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        task = Flux.interval(Duration.ZERO, Duration.ofMillis(intervalMillis))
+                .onBackpressureDrop()
+                .concatMap(tick -> checkAll())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private Mono<Void> checkAll() {
+        return Flux.fromIterable(registry.getAllInstances())
+                .flatMapIterable(instances -> instances)
+                .flatMap(this::check)
+                .then();
+    }
+
+    private Mono<Void> check(UpstreamInstance instance) {
+        return webClient.get()
+                .uri(instance.getUri().resolve(path))
+                .exchangeToMono(response -> {
+                    boolean healthy = response.statusCode().is2xxSuccessful();
+                    return response.releaseBody().thenReturn(healthy);
+                })
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .onErrorReturn(false)
+                .doOnNext(healthy -> update(instance, healthy))
+                .then();
+    }
+
+    private void update(UpstreamInstance instance, boolean healthy) {
+        if (healthy) {
+            instance.healthCheckFailures.set(0);
+            if (!instance.healthy && instance.healthCheckSuccesses.incrementAndGet() >= healthyThreshold) {
+                instance.healthy = true;
+                instance.healthCheckSuccesses.set(0);
+                log.info("实例 {} 健康检查恢复", instance);
+            }
+        } else {
+            instance.healthCheckSuccesses.set(0);
+            if (instance.healthy && instance.healthCheckFailures.incrementAndGet() >= unhealthyThreshold) {
+                instance.healthy = false;
+                instance.healthCheckFailures.set(0);
+                log.warn("实例 {} 健康检查失败，暂停分配请求", instance);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.points.gateway.lb;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 后端服务实例及其负载和健康状态
+ */
+public final class UpstreamInstance {
+
+    private final String serviceId;
+    private final URI uri;
+
+    /**
+     * 正在处理的请求数
+     */
+    final AtomicInteger outstanding = new AtomicInteger();
+
+    /**
+     * 主动健康检查结果，启动时视为健康
+     */
+    volatile boolean healthy = true;
+    final AtomicInteger healthCheckFailures = new AtomicInteger();
+    final AtomicInteger healthCheckSuccesses = new AtomicInteger();
+
+    /**
+     * 连续失败的请求数，达到阈值后摘除到 ejectedUntil
+     */
+    final AtomicInteger consecutiveFailures = new AtomicInteger();
+    volatile long ejectedUntil;
+    volatile int ejections;
+
+    UpstreamInstance(String serviceId, URI uri) {
+        this.serviceId = serviceId;
+        this.uri = uri;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    boolean isEjected(long now) {
+        return now < ejectedUntil;
+    }
+
+    boolean isAvailable(long now) {
+        return healthy && !isEjected(now);
+    }
+
+    @Override
+    public String toString() {
+        return serviceId + "@" + uri;
+    }
+}
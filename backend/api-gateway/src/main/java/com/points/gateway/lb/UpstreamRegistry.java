@@ -0,0 +1,202 @@
+package com.points.gateway.lb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 静态服务实例列表和负载均衡
+ *
+ * 1. 实例来自 gateway.load-balancer.services.<服务名>（逗号分隔的地址），路由 uri 写 lb://<服务名>
+ * 2. 选择实例：从可用实例中随机取两个，选正在处理请求数较少的一个（power of two choices）
+ * 3. 可用 = 主动健康检查通过（见 UpstreamHealthChecker）且未被摘除；
+ *    连续失败 consecutive-failures 次的实例被摘除一段时间，每次摘除时间递增，
+ *    同一服务被摘除的实例不超过 max-ejection-percent（单实例服务不会被摘除）
+ * 4. 没有可用实例时仍然从全部实例中选择，避免健康检查误判导致服务完全不可用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpstreamRegistry {
+
+    private static final String SERVICES_PROPERTY = "gateway.load-balancer.services";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.load-balancer.outlier.consecutive-failures:5}")
+    private int consecutiveFailures;
+
+    @Value("${gateway.load-balancer.outlier.base-ejection-ms:30000}")
+    private long baseEjectionMillis;
+
+    @Value("${gateway.load-balancer.outlier.max-ejection-ms:300000}")
+    private long maxEjectionMillis;
+
+    @Value("${gateway.load-balancer.outlier.max-ejection-percent:50}")
+    private int maxEjectionPercent;
+
+    private final Map<String, List<UpstreamInstance>> services = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Map<String, String> configured = Binder.get(environment)
+                .bind(SERVICES_PROPERTY, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        configured.forEach((serviceId, addresses) -> {
+            List<UpstreamInstance> instances = new ArrayList<>();
+            for (String address : addresses.split(",")) {
+                if (!address.isBlank()) {
+                    instances.add(register(serviceId, URI.create(address.trim())));
+                }
+            }
+            services.put(serviceId, List.copyOf(instances));
+            log.info("服务 {} 的实例: {}", serviceId, instances);
+        });
+    }
+
+    private UpstreamInstance register(String serviceId, URI uri) {
+        UpstreamInstance instance = new UpstreamInstance(serviceId, uri);
+        String address = uri.getAuthority();
+        Gauge.builder("gateway.upstream.outstanding", instance, UpstreamInstance::getOutstanding)
+                .tag("service", serviceId).tag("instance", address)
+                .register(meterRegistry);
+        Gauge.builder("gateway.upstream.available", instance, i -> i.isAvailable(System.currentTimeMillis()) ? 1 : 0)
+                .tag("service", serviceId).tag("instance", address)
+                .register(meterRegistry);
+        return instance;
+    }
+
+    /**
+     * 所有服务的所有实例（供健康检查使用）
+     */
+    public Collection<List<UpstreamInstance>> getAllInstances() {
+        return services.values();
+    }
+
+    public List<UpstreamInstance> getInstances(String serviceId) {
+        return services.getOrDefault(serviceId, List.of());
+    }
+
+    /**
+     * 选择实例
+     *
+     * @param exclude 不选择的实例（重试或对冲请求时排除已经使用的实例），可以为 null
+     * @return 服务未配置或除 exclude 外没有实例时返回 null
+     */
+    public UpstreamInstance choose(String serviceId, UpstreamInstance exclude) {
+        List<UpstreamInstance> instances = services.get(serviceId);
+        if (instances == null || instances.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        List<UpstreamInstance> candidates = new ArrayList<>(instances.size());
+        for (UpstreamInstance instance : instances) {
+            if (instance != exclude && instance.isAvailable(now)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            for (UpstreamInstance instance : instances) {
+                if (instance != exclude) {
+                    candidates.add(instance);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        UpstreamInstance a = candidates.get(first);
+        UpstreamInstance b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    /**
+     * 统计实例正在处理的请求数和请求结果（连接失败、超时和 5xx 视为失败）；
+     * 请求被取消（如对冲请求落败）时不计入结果
+     *
+     * @param status 根据请求结果取响应状态码
+     */
+    public <T> Mono<T> track(UpstreamInstance instance, Mono<T> call, Function<T, HttpStatusCode> status) {
+        return Mono.defer(() -> {
+            instance.outstanding.incrementAndGet();
+            return call
+                    .doOnSuccess(v -> recordResult(instance, !isServerError(status.apply(v))))
+                    .doOnError(e -> recordResult(instance, false))
+                    .doFinally(signal -> instance.outstanding.decrementAndGet());
+        });
+    }
+
+    private static boolean isServerError(HttpStatusCode status) {
+        return status != null && status.is5xxServerError();
+    }
+
+    /**
+     * 记录请求结果，连续失败达到阈值时摘除实例
+     */
+    public void recordResult(UpstreamInstance instance, boolean success) {
+        long now = System.currentTimeMillis();
+        if (success) {
+            instance.consecutiveFailures.set(0);
+            // 恢复后稳定运行一段时间，摘除时间重新从 base-ejection-ms 开始
+            if (instance.ejections > 0 && now - instance.ejectedUntil > maxEjectionMillis) {
+                instance.ejections = 0;
+            }
+            return;
+        }
+        if (instance.consecutiveFailures.incrementAndGet() >= consecutiveFailures && !instance.isEjected(now)) {
+            eject(instance, now);
+        }
+    }
+
+    private void eject(UpstreamInstance instance, long now) {
+        List<UpstreamInstance> instances = getInstances(instance.getServiceId());
+        synchronized (instances) {
+            if (instance.isEjected(now)) {
+                return;
+            }
+            long ejected = instances.stream().filter(i -> i.isEjected(now)).count();
+            if ((ejected + 1) * 100 > (long) instances.size() * maxEjectionPercent) {
+                return;
+            }
+            instance.ejections++;
+            long duration = Math.min(maxEjectionMillis, baseEjectionMillis * instance.ejections);
+            instance.ejectedUntil = now + duration;
+            instance.consecutiveFailures.set(0);
+        }
+        Counter.builder("gateway.upstream.ejections")
+                .tag("service", instance.getServiceId())
+                .tag("instance", instance.getUri().getAuthority())
+                .register(meterRegistry)
+                .increment();
+        log.warn("实例 {} 连续失败 {} 次，摘除 {}ms", instance, consecutiveFailures, instance.ejectedUntil - now);
+    }
+}
@@ -0,0 +1,234 @@
+package com.points.gateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 网关限流（RequestRateLimiter 过滤器使用的令牌桶）
+ *
+ * 1. 每个路由单独配置（过滤器参数 gateway-rate-limiter.*），未配置的路由使用 gateway.rate-limit.default-*
+ * 2. gateway.rate-limit.backend=local：令牌桶保存在本实例内存中，多实例部署时每个实例各自限流
+ * 3. gateway.rate-limit.backend=redis：委托 Spring Cloud Gateway 自带的 RedisRateLimiter，
+ *    多个网关实例共享令牌桶；Redis 不可用时放行
+ * 4. 每个路由的放行和拒绝次数记录在 gateway.rate_limit.requests 指标中
+ */
+@Slf4j
+@Primary
+@Component
+public class GatewayRateLimiter extends AbstractRateLimiter<GatewayRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "gateway-rate-limiter";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    private static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final ObjectProvider<RedisRateLimiter> redisRateLimiterProvider;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.rate-limit.backend:local}")
+    private String backend;
+
+    @Value("${gateway.rate-limit.default-replenish-rate:50}")
+    private int defaultReplenishRate;
+
+    @Value("${gateway.rate-limit.default-burst-capacity:100}")
+    private int defaultBurstCapacity;
+
+    @Value("${gateway.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private Config defaultConfig;
+    private RedisRateLimiter redisRateLimiter;
+
+    public GatewayRateLimiter(ConfigurationService configurationService,
+                              ObjectProvider<RedisRateLimiter> redisRateLimiterProvider,
+                              MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.redisRateLimiterProvider = redisRateLimiterProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        defaultConfig = new Config();
+        defaultConfig.setReplenishRate(defaultReplenishRate);
+        defaultConfig.setBurstCapacity(defaultBurstCapacity);
+        if ("redis".equalsIgnoreCase(backend)) {
+            redisRateLimiter = redisRateLimiterProvider.getIfAvailable();
+            if (redisRateLimiter == null) {
+                throw new IllegalStateException("gateway.rate-limit.backend=redis 需要配置 Redis");
+            }
+        }
+        Gauge.builder("gateway.rate_limit.local.keys", buckets, Map::size).register(meterRegistry);
+        log.info("网关限流使用 {} 令牌桶", redisRateLimiter != null ? "Redis" : "本地");
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        // 不同路由的令牌桶互相独立
+        String key = routeId + ":" + id;
+        Mono<Response> response = redisRateLimiter != null
+                ? isAllowedByRedis(routeId, key, config)
+                : Mono.fromSupplier(() -> isAllowedLocally(key, config));
+        return response.doOnNext(result -> counter(routeId, result.isAllowed()).increment());
+    }
+
+    private Mono<Response> isAllowedByRedis(String routeId, String key, Config config) {
+        redisRateLimiter.getConfig().computeIfAbsent(routeId, r -> new RedisRateLimiter.Config()
+                .setReplenishRate(config.getReplenishRate())
+                .setBurstCapacity(config.getBurstCapacity())
+                .setRequestedTokens(config.getRequestedTokens()));
+        return redisRateLimiter.isAllowed(routeId, key);
+    }
+
+    private Response isAllowedLocally(String key, Config config) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedKeys) {
+                makeRoom(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(config.getBurstCapacity(), now));
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        synchronized (bucket) {
+            bucket.refill(now, config);
+            if (bucket.tokens >= config.getRequestedTokens()) {
+                bucket.tokens -= config.getRequestedTokens();
+                headers.put(REMAINING_HEADER, String.valueOf((long) bucket.tokens));
+                return new Response(true, headers);
+            }
+            double missing = config.getRequestedTokens() - bucket.tokens;
+            headers.put(REMAINING_HEADER, "0");
+            headers.put(RETRY_AFTER_HEADER, String.valueOf((long) Math.ceil(missing / config.getReplenishRate())));
+            return new Response(false, headers);
+        }
+    }
+
+    /**
+     * 令牌桶数量达到上限时先清理已补满的桶（与不存在等价），仍然不足则淘汰约 1/8
+     */
+    private void makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            int target = maxTrackedKeys - Math.max(1, maxTrackedKeys / 8);
+            Iterator<String> iterator = buckets.keySet().iterator();
+            while (buckets.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private Counter counter(String routeId, boolean allowed) {
+        return Counter.builder("gateway.rate_limit.requests")
+                .tag("route", routeId)
+                .tag("result", allowed ? "allowed" : "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 路由限流配置，含义与 RedisRateLimiter 相同
+     */
+    public static class Config {
+
+        /**
+         * 每秒补充的令牌数
+         */
+        private int replenishRate = 50;
+
+        /**
+         * 令牌桶容量（允许的突发请求数）
+         */
+        private int burstCapacity = 100;
+
+        /**
+         * 每个请求消耗的令牌数
+         */
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long lastRefill;
+        /**
+         * 桶补满的时间，之后该桶与不存在等价
+         */
+        volatile long fullAt;
+
+        Bucket(int tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+            this.fullAt = now;
+        }
+
+        void refill(long now, Config config) {
+            double added = (now - lastRefill) / 1_000_000_000.0 * config.getReplenishRate();
+            tokens = Math.min(config.getBurstCapacity(), tokens + added);
+            lastRefill = now;
+            double missing = config.getBurstCapacity() - tokens + config.getRequestedTokens();
+            fullAt = now + (long) (missing / config.getReplenishRate() * 1_000_000_000.0);
+        }
+
+        boolean isIdle(long now) {
+            return now - fullAt >= 0;
+        }
+    }
+}
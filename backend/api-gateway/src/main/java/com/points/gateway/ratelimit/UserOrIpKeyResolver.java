@@ -0,0 +1,34 @@
+package com.points.gateway.ratelimit;
+
+import com.points.gateway.filter.AuthenticationGlobalFilter;
+import com.points.gateway.security.VerifiedToken;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 限流 key：已登录请求按用户ID，未登录请求按客户端IP
+ * 依赖 AuthenticationGlobalFilter 先验签（全局过滤器顺序在路由过滤器之前）
+ */
+@Component
+public class UserOrIpKeyResolver implements KeyResolver {
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        VerifiedToken token = exchange.getAttribute(AuthenticationGlobalFilter.VERIFIED_TOKEN_ATTR);
+        if (token != null) {
+            return Mono.just("user:" + token.getUserId());
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null) {
+            return Mono.just("ip:unknown");
+        }
+        String host = remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+        return Mono.just("ip:" + host);
+    }
+}
@@ -0,0 +1,128 @@
+package com.points.gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 网关JWT验证
+ * 验签结果按Token缓存到过期为止，同一个Token在有效期内只验签一次；
+ * 缓存有容量上限，满时先清理过期条目，仍然不足则淘汰约 1/8 的条目
+ * （与 common 模块的 VerifiedTokenCache 相同），同一时刻只有一个线程执行清理，其余线程本次不写入缓存；
+ * 吊销检查由后端服务根据转发的 jti 进行，因此这里可以放心缓存到过期
+ */
+@Component
+public class GatewayTokenVerifier {
+
+    @Value("${jwt.secret:points-system-secret-key-for-jwt-token-generation-minimum-256-bits}")
+    private String secret;
+
+    @Value("${gateway.auth.cache-max-size:10000}")
+    private int cacheMaxSize;
+
+    private JwtParser parser;
+
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+    }
+
+    /**
+     * 验证Token
+     *
+     * @return 身份信息，Token无效或已过期时返回 null（无效Token不缓存）
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = cache.get(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            cache.remove(token, cached);
+            return null;
+        }
+
+        VerifiedToken verified = parse(token, now);
+        if (verified != null) {
+            put(token, verified, now);
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token, long now) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        String userId = claims.get("userId", String.class);
+        if (expiration == null || expiration.getTime() <= now || userId == null) {
+            return null;
+        }
+        // 刷新Token不能作为访问Token使用
+        if ("refresh".equals(claims.get("type", String.class))) {
+            return null;
+        }
+        return new VerifiedToken(
+                userId,
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                expiration.getTime(),
+                claims.getId()
+        );
+    }
+
+    private void put(String token, VerifiedToken verified, long now) {
+        if (cache.size() >= cacheMaxSize && !makeRoom(now)) {
+            return;
+        }
+        cache.put(token, verified);
+    }
+
+    /**
+     * 缓存满时先清理过期条目，仍然不足则淘汰约 1/8 的条目，保证之后的新Token可以写入
+     */
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (cache.size() < cacheMaxSize) {
+                return true;
+            }
+            cache.values().removeIf(entry -> entry.isExpired(now));
+            int target = cacheMaxSize - Math.max(1, cacheMaxSize / 8);
+            Iterator<String> iterator = cache.keySet().iterator();
+            while (cache.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return cache.size() < cacheMaxSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
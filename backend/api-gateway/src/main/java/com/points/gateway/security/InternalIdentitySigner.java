@@ -0,0 +1,86 @@
+package com.points.gateway.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * 内部身份签名
+ * 对转发给后端服务的 X-User-* 头做 HMAC-SHA256 签名，
+ * 签名格式必须与 common 模块的 InternalIdentity 保持一致：
+ * userId \n username \n role \n expiresAt \n tokenId \n timestamp（用户名按 UTF-8 URL 编码）
+ */
+@Component
+public class InternalIdentitySigner {
+
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_USER_NAME = "X-User-Name";
+    public static final String HEADER_USER_ROLE = "X-User-Role";
+    public static final String HEADER_EXPIRES = "X-Auth-Expires";
+    public static final String HEADER_TOKEN_ID = "X-Token-Id";
+    public static final String HEADER_TIMESTAMP = "X-Auth-Timestamp";
+    public static final String HEADER_SIGNATURE = "X-Auth-Signature";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    @Value("${auth.internal.secret:}")
+    private String secret;
+
+    private SecretKeySpec key;
+
+    /**
+     * Mac 不是线程安全的，每个线程复用一个实例
+     */
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        }
+    }
+
+    /**
+     * 是否配置了内部密钥，未配置时网关不转发身份头，由服务自行解析JWT
+     */
+    public boolean isEnabled() {
+        return secret != null && !secret.isBlank();
+    }
+
+    /**
+     * 对用户名做 URL 编码（HTTP 头只能安全携带 ASCII）
+     */
+    public static String encodeUsername(String username) {
+        return username == null ? "" : URLEncoder.encode(username, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 计算签名
+     *
+     * @return Base64url 编码的签名
+     */
+    public String sign(String userId, String encodedUsername, String role, long expiresAt,
+                       String tokenId, long timestamp) {
+        String content = userId + "\n" + encodedUsername + "\n" + (role != null ? role : "")
+                + "\n" + expiresAt + "\n" + (tokenId != null ? tokenId : "") + "\n" + timestamp;
+        byte[] signature = macs.get().doFinal(content.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化内部身份签名失败", e);
+        }
+    }
+}
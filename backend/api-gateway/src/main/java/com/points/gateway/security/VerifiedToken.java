@@ -0,0 +1,21 @@
+package com.points.gateway.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 网关验签后的Token身份信息
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String userId;
+    private final String username;
+    private final String role;
+    private final long expiresAt; // 过期时间（毫秒时间戳）
+    private final String tokenId; // jti，后端服务据此检查吊销
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
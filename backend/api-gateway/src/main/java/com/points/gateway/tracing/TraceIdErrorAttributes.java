@@ -0,0 +1,30 @@
+package com.points.gateway.tracing;
+
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.springframework.boot.web.error.ErrorAttributeOptions;
+import org.springframework.boot.web.reactive.error.DefaultErrorAttributes;
+import org.springframework.http.server.reactive.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import java.util.Map;
+
+/**
+ * 网关错误响应（超时 504、服务不可用 503 等）增加 traceId 字段
+ * traceId 取自当前请求的 Observation，不依赖线程上下文
+ */
+@Component
+public class TraceIdErrorAttributes extends DefaultErrorAttributes {
+
+    @Override
+    public Map<String, Object> getErrorAttributes(ServerRequest request, ErrorAttributeOptions options) {
+        Map<String, Object> attributes = super.getErrorAttributes(request, options);
+        ServerRequestObservationContext.findCurrent(request.exchange().getAttributes())
+                .map(context -> context.<TracingObservationHandler.TracingContext>get(
+                        TracingObservationHandler.TracingContext.class))
+                .filter(tracingContext -> tracingContext.getSpan() != null)
+                .ifPresent(tracingContext ->
+                        attributes.put("traceId", tracingContext.getSpan().context().traceId()));
+        return attributes;
+    }
+}
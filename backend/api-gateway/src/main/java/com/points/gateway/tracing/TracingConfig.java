@@ -0,0 +1,43 @@
+package com.points.gateway.tracing;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 网关链路追踪配置（Micrometer Tracing + OpenTelemetry）
+ *
+ * 1. tracing.exporter 选择 Span 导出方式：otlp、log、none，与各服务相同
+ * 2. 转发请求、负载均衡/对冲请求、首页聚合的 WebClient 调用都会传递 traceparent 头，下游服务继续同一条链路
+ * 3. 网关返回的错误响应带 traceId（TraceIdErrorAttributes）
+ */
+@Slf4j
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "log")
+    public SpanExporter loggingSpanExporter() {
+        log.info("链路追踪：Span 写入日志");
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "otlp")
+    public OtlpHttpSpanExporter otlpHttpSpanExporter(
+            @Value("${tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint,
+            @Value("${tracing.otlp.timeout-ms:10000}") long timeoutMillis) {
+        log.info("链路追踪：Span 通过 OTLP 发送到 {}", endpoint);
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(endpoint)
+                .setTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+    }
+}
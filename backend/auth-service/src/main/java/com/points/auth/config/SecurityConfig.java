@@ -35,6 +35,12 @@ public class SecurityConfig {
     @Value("${cors.allowed-origins:http://localhost:5173,http://localhost:5174}")
     private String allowedOrigins;
 
+    /**
+     * 新密码哈希使用的 BCrypt cost，旧哈希在用户登录成功后自动重新哈希
+     */
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -48,6 +54,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // 公开接口：登录、注册、刷新token、获取用户信息（供服务间调用）
                 .requestMatchers("/api/auth/**").permitAll()
+                // 监控端点：网关只转发 /api/**，外部无法访问
+                .requestMatchers("/actuator/health", "/actuator/metrics/**", "/actuator/prometheus").permitAll()
                 // 其他接口需要认证
                 .anyRequest().authenticated()
             )
@@ -60,7 +68,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     /**
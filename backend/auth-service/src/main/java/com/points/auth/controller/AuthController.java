@@ -1,13 +1,23 @@
 package com.points.auth.controller;
 
+import com.points.common.annotation.CurrentUser;
+import com.points.common.annotation.RequireService;
 import com.points.common.dto.ApiResponse;
 import com.points.common.dto.LoginRequest;
 import com.points.common.dto.LoginResponse;
 import com.points.auth.service.AuthService;
+import com.points.auth.service.LoginThrottledException;
+import com.points.auth.service.TokenRevocationService;
+import com.points.common.dto.TokenRevocationDTO;
+import com.points.common.security.JwtPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 认证控制器
  */
@@ -17,15 +27,69 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenRevocationService tokenRevocationService;
 
     /**
      * 用户登录
+     * 尝试次数过多或登录繁忙时返回 429，并通过 Retry-After 头告知重试等待秒数
      */
     @PostMapping(value = "/login", produces = "application/json;charset=UTF-8")
-    public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                            HttpServletRequest httpRequest,
+                                            HttpServletResponse httpResponse) {
         try {
-            LoginResponse response = authService.login(request);
+            // 经过网关时 remoteAddr 已由 X-Forwarded-For 还原为客户端IP（server.forward-headers-strategy）
+            LoginResponse response = authService.login(request, httpRequest.getRemoteAddr());
             return ApiResponse.success("登录成功", response);
+        } catch (LoginThrottledException e) {
+            httpResponse.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            return ApiResponse.error(429, e.getMessage());
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 刷新Token
+     * 旧的刷新Token使用后立即失效
+     */
+    @PostMapping(value = "/refresh", produces = "application/json;charset=UTF-8")
+    public ApiResponse<LoginResponse> refresh(@RequestBody RefreshRequest request) {
+        try {
+            LoginResponse response = authService.refresh(request.getRefreshToken());
+            return ApiResponse.success("刷新成功", response);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(401, e.getMessage());
+        }
+    }
+
+    /**
+     * 退出登录
+     * 吊销当前访问Token，请求体中带刷新Token时一并吊销
+     */
+    @PostMapping("/logout")
+    public ApiResponse<Void> logout(@CurrentUser JwtPrincipal principal,
+                                    @RequestBody(required = false) RefreshRequest request) {
+        try {
+            authService.logout(principal, request != null ? request.getRefreshToken() : null);
+            return ApiResponse.success("退出成功", null);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取吊销记录（供其他服务同步）
+     * 只接受内部服务身份，网关不转发该路径
+     *
+     * @param since 毫秒时间戳，只返回此后吊销且尚未过期的记录
+     */
+    @RequireService
+    @GetMapping("/revocations")
+    public ApiResponse<List<TokenRevocationDTO>> getRevocations(
+            @RequestParam(required = false, defaultValue = "0") long since) {
+        try {
+            return ApiResponse.success(tokenRevocationService.getRevocationsSince(since));
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
         }
@@ -61,6 +125,13 @@ public class AuthController {
         }
     }
 
+    public static class RefreshRequest {
+        private String refreshToken;
+
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    }
+
     public static class UserInfo {
         private String id;
         private String username;
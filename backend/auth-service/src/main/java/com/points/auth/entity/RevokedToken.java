@@ -0,0 +1,35 @@
+package com.points.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已吊销Token实体
+ * 按 jti 记录，Token过期后记录可以删除
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId; // jti
+
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt; // Token过期时间
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -14,6 +14,7 @@ import java.util.UUID;
  */
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
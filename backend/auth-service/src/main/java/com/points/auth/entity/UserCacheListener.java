@@ -0,0 +1,37 @@
+package com.points.auth.entity;
+
+import com.points.auth.service.UserInfoCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 用户实体监听器
+ * 通过 JPA 修改或删除用户后清除用户信息缓存，在事务提交后执行，避免提交前被并发读取回填旧数据
+ * （JPQL 批量更新不会触发，修改用户信息字段时不要使用批量更新）
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheListener {
+
+    private final UserInfoCache userInfoCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        String userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userInfoCache.evict(userId);
+                }
+            });
+        } else {
+            userInfoCache.evict(userId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.points.auth.repository;
+
+import com.points.auth.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * 插入吊销记录，已存在时忽略
+     *
+     * @return 1 表示本次新吊销，0 表示此前已吊销（用于刷新Token只能使用一次）
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO revoked_tokens (token_id, user_id, expires_at, revoked_at) " +
+            "VALUES (:tokenId, :userId, :expiresAt, :revokedAt)", nativeQuery = true)
+    int insertIgnore(@Param("tokenId") String tokenId,
+                     @Param("userId") String userId,
+                     @Param("expiresAt") LocalDateTime expiresAt,
+                     @Param("revokedAt") LocalDateTime revokedAt);
+
+    /**
+     * 查询指定时间之后吊销且尚未过期的记录（增量同步）
+     */
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfterOrderByRevokedAtAsc(LocalDateTime revokedAfter,
+                                                                               LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
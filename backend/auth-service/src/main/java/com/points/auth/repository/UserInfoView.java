@@ -0,0 +1,15 @@
+package com.points.auth.repository;
+
+/**
+ * 用户信息投影
+ * 只查询对外提供的用户信息列，不加载密码哈希等字段
+ */
+public interface UserInfoView {
+    String getId();
+
+    String getUsername();
+
+    String getNickname();
+
+    String getPhone();
+}
@@ -2,7 +2,11 @@ package com.points.auth.repository;
 
 import com.points.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -10,4 +14,16 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.nickname AS nickname, u.phone AS phone " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserInfoView> findUserInfoById(@Param("id") String id);
+
+    /**
+     * 更新密码哈希（仅当当前哈希仍为 oldHash 时）
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordHash(@Param("id") String id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
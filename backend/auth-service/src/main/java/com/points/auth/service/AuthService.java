@@ -4,13 +4,16 @@ import com.points.auth.entity.User;
 import com.points.auth.repository.UserRepository;
 import com.points.common.dto.LoginRequest;
 import com.points.common.dto.LoginResponse;
+import com.points.common.security.JwtPrincipal;
 import com.points.common.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 认证服务
@@ -21,17 +24,47 @@ import java.util.Optional;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
+    private final LoginThrottle loginThrottle;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserInfoCache userInfoCache;
+    private final MeterRegistry meterRegistry;
 
     /**
      * 用户登录
+     * 不开启事务：密码校验可能排队，期间不占用数据库连接
+     *
+     * @param clientIp 客户端IP，用于按IP限流
+     * @throws LoginThrottledException 尝试次数过多或密码校验繁忙
      */
-    @Transactional(readOnly = true)
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            LoginResponse response = doLogin(request, clientIp);
+            outcome = "success";
+            return response;
+        } catch (LoginThrottledException e) {
+            outcome = "throttled";
+            throw e;
+        } finally {
+            Timer.builder("auth.login")
+                    .description("登录耗时")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private LoginResponse doLogin(LoginRequest request, String clientIp) {
+        loginThrottle.acquire(request.getUsername(), clientIp);
+
         Optional<User> userOpt = userRepository.findByUsername(request.getUsername());
         
         if (userOpt.isEmpty()) {
+            loginThrottle.recordFailure(request.getUsername());
             throw new RuntimeException("用户名或密码错误");
         }
 
@@ -41,10 +74,51 @@ public class AuthService {
             throw new RuntimeException("用户已被禁用");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordVerifier.matches(request.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(request.getUsername());
             throw new RuntimeException("用户名或密码错误");
         }
+        loginThrottle.recordSuccess(request.getUsername());
+        passwordVerifier.rehashIfNeeded(user.getId(), request.getPassword(), user.getPassword());
+
+        return issueTokens(user);
+    }
 
+    /**
+     * 刷新Token
+     * 刷新Token只能使用一次：使用后立即吊销，并签发新的访问Token和刷新Token
+     */
+    public LoginResponse refresh(String refreshToken) {
+        JwtPrincipal principal = jwtUtil.verifyRefreshToken(refreshToken);
+        if (principal == null) {
+            throw new RuntimeException("刷新Token无效或已过期");
+        }
+        User user = userRepository.findById(principal.getUserId())
+                .orElseThrow(() -> new RuntimeException("用户不存在"));
+        if (user.getStatus() == 0) {
+            throw new RuntimeException("用户已被禁用");
+        }
+        // 并发使用同一个刷新Token时只有一个请求能成功
+        if (!tokenRevocationService.revoke(principal)) {
+            throw new RuntimeException("刷新Token无效或已过期");
+        }
+        return issueTokens(user);
+    }
+
+    /**
+     * 退出登录，吊销当前访问Token和（可选的）刷新Token
+     */
+    public void logout(JwtPrincipal accessPrincipal, String refreshToken) {
+        tokenRevocationService.revoke(accessPrincipal);
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            JwtPrincipal refreshPrincipal = jwtUtil.verifyRefreshToken(refreshToken);
+            if (refreshPrincipal != null && refreshPrincipal.getUserId().equals(accessPrincipal.getUserId())) {
+                tokenRevocationService.revoke(refreshPrincipal);
+            }
+        }
+    }
+
+    private LoginResponse issueTokens(User user) {
         String role = user.getRole() != null ? user.getRole() : "user";
         String token = jwtUtil.generateToken(user.getId(), user.getUsername(), role);
         String refreshToken = jwtUtil.generateRefreshToken(user.getId(), user.getUsername());
@@ -55,17 +129,18 @@ public class AuthService {
                 user.getNickname() != null ? user.getNickname() : user.getUsername()
         );
 
-        return new LoginResponse(token, refreshToken, 2592000000L, userInfo);  // 30天
+        return new LoginResponse(token, refreshToken, jwtUtil.getExpiration(), userInfo);
     }
 
     /**
      * 验证Token
      */
     public String validateToken(String token) {
-        if (!jwtUtil.validateToken(token)) {
+        JwtPrincipal principal = jwtUtil.verifyToken(token);
+        if (principal == null) {
             throw new RuntimeException("登录信息已过期");
         }
-        return jwtUtil.getUserIdFromToken(token);
+        return principal.getUserId();
     }
 
     /**
@@ -96,19 +171,16 @@ public class AuthService {
 
     /**
      * 获取用户信息（供其他服务调用）
+     * 先查两级缓存，未命中时通过投影查询（不加载密码哈希）
      */
-    @Transactional(readOnly = true)
     public com.points.auth.controller.AuthController.UserInfo getUserInfo(String userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return null;
-        }
-        User user = userOpt.get();
-        return new com.points.auth.controller.AuthController.UserInfo(
-                user.getId(),
-                user.getUsername(),
-                user.getNickname() != null ? user.getNickname() : user.getUsername(),
-                user.getPhone()
-        );
+        return userInfoCache.get(userId, id -> userRepository.findUserInfoById(id)
+                .map(view -> new com.points.auth.controller.AuthController.UserInfo(
+                        view.getId(),
+                        view.getUsername(),
+                        view.getNickname() != null ? view.getNickname() : view.getUsername(),
+                        view.getPhone()
+                ))
+                .orElse(null));
     }
 }
@@ -0,0 +1,142 @@
+package com.points.auth.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 登录限流（固定时间窗口计数）
+ *
+ * 1. 按用户名：窗口内密码错误次数达到上限后锁定到窗口结束，登录成功清零
+ * 2. 按IP：窗口内登录尝试次数（无论成功失败）达到上限后拒绝
+ * 检查在密码校验之前进行，被拒绝的请求不消耗 BCrypt 计算；
+ * 计数器数量有上限，满时先清理过期窗口，仍然不足则淘汰约 1/8 的计数器
+ */
+@Component
+public class LoginThrottle {
+
+    @Value("${auth.login.username-max-failures:5}")
+    private int usernameMaxFailures;
+
+    @Value("${auth.login.username-window-ms:900000}") // 15分钟
+    private long usernameWindowMillis;
+
+    @Value("${auth.login.ip-max-attempts:30}")
+    private int ipMaxAttempts;
+
+    @Value("${auth.login.ip-window-ms:60000}") // 1分钟
+    private long ipWindowMillis;
+
+    @Value("${auth.login.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * 检查是否允许登录，并记录一次IP尝试
+     *
+     * @throws LoginThrottledException 用户名已锁定或IP尝试次数过多
+     */
+    public void acquire(String username, String clientIp) {
+        long now = System.currentTimeMillis();
+        Window userWindow = windows.get(usernameKey(username));
+        if (userWindow != null && userWindow.count(now) >= usernameMaxFailures) {
+            throw new LoginThrottledException("密码错误次数过多，请稍后再试", userWindow.retryAfterSeconds(now));
+        }
+        if (clientIp != null) {
+            Window ipWindow = window(ipKey(clientIp), ipWindowMillis, now);
+            if (ipWindow.increment(now) > ipMaxAttempts) {
+                throw new LoginThrottledException("登录尝试过于频繁，请稍后再试", ipWindow.retryAfterSeconds(now));
+            }
+        }
+    }
+
+    /**
+     * 记录一次密码错误
+     */
+    public void recordFailure(String username) {
+        long now = System.currentTimeMillis();
+        window(usernameKey(username), usernameWindowMillis, now).increment(now);
+    }
+
+    /**
+     * 登录成功，清除该用户名的错误计数
+     */
+    public void recordSuccess(String username) {
+        windows.remove(usernameKey(username));
+    }
+
+    private Window window(String key, long windowMillis, long now) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window;
+        }
+        if (windows.size() >= maxTrackedKeys) {
+            makeRoom(now);
+        }
+        return windows.computeIfAbsent(key, k -> new Window(windowMillis));
+    }
+
+    private void makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            windows.values().removeIf(window -> window.isExpired(now));
+            int target = maxTrackedKeys - Math.max(1, maxTrackedKeys / 8);
+            Iterator<String> iterator = windows.keySet().iterator();
+            while (windows.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + username;
+    }
+
+    private static String ipKey(String clientIp) {
+        return "ip:" + clientIp;
+    }
+
+    /**
+     * 固定时间窗口计数器，窗口过期后下一次计数时重新开始
+     */
+    private static final class Window {
+        private final long windowMillis;
+        private long start;
+        private int count;
+
+        Window(long windowMillis) {
+            this.windowMillis = windowMillis;
+        }
+
+        synchronized int increment(long now) {
+            if (now - start >= windowMillis) {
+                start = now;
+                count = 0;
+            }
+            return ++count;
+        }
+
+        synchronized int count(long now) {
+            return now - start >= windowMillis ? 0 : count;
+        }
+
+        synchronized long retryAfterSeconds(long now) {
+            return Math.max(1, (start + windowMillis - now + 999) / 1000);
+        }
+
+        synchronized boolean isExpired(long now) {
+            return now - start >= windowMillis;
+        }
+    }
+}
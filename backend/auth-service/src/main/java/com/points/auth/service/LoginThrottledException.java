@@ -0,0 +1,18 @@
+package com.points.auth.service;
+
+/**
+ * 登录被限流（尝试次数过多或密码校验线程池繁忙）
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,163 @@
+package com.points.auth.service;
+
+import com.points.auth.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 密码校验
+ *
+ * BCrypt 校验是CPU密集操作，放在独立的有界线程池中执行，不占用 Tomcat 请求线程：
+ * 1. 线程数默认为CPU核数的一半，登录高峰时其余核心仍能处理 /api/auth/user/{id} 等接口
+ * 2. 队列满或等待超时直接拒绝（LoginThrottledException），不无限堆积
+ * 3. 登录成功且密码哈希的 cost 与配置不一致时，异步重新哈希并保存
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordVerifier {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.password.threads:0}") // 0表示CPU核数的一半
+    private int threads;
+
+    @Value("${auth.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.password.timeout-ms:3000}")
+    private long timeoutMillis;
+
+    @Value("${auth.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    private ThreadPoolExecutor executor;
+    private Timer verifyTimer;
+    private Timer queueWaitTimer;
+    private Counter rejectedCounter;
+    private Counter rehashCounter;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        verifyTimer = Timer.builder("auth.password.verify")
+                .description("BCrypt 校验耗时（不含排队）")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("密码校验排队等待时间")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("线程池繁忙被拒绝的密码校验次数")
+                .register(meterRegistry);
+        rehashCounter = Counter.builder("auth.password.rehash")
+                .description("按配置 cost 重新哈希的次数")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("等待校验的密码数量")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在校验的密码数量")
+                .register(meterRegistry);
+        log.info("密码校验线程池：线程数 {}，队列容量 {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 校验密码
+     *
+     * @throws LoginThrottledException 线程池繁忙或等待超时
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long submittedAt = System.nanoTime();
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                boolean matched = passwordEncoder.matches(rawPassword, encodedPassword);
+                verifyTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return matched;
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginThrottledException("登录人数过多，请稍后再试", 1);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new LoginThrottledException("登录人数过多，请稍后再试", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("登录失败，请重试");
+        } catch (ExecutionException e) {
+            log.error("密码校验失败", e.getCause());
+            throw new RuntimeException("登录失败，请重试");
+        }
+    }
+
+    /**
+     * 密码哈希的 cost 与配置不一致时，异步使用配置的 cost 重新哈希
+     * 线程池繁忙时跳过，下次登录再处理
+     */
+    public void rehashIfNeeded(String userId, String rawPassword, String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        if (matcher.find() && Integer.parseInt(matcher.group(1)) == bcryptStrength) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                String newHash = passwordEncoder.encode(rawPassword);
+                // 只有密码未被修改时才更新，避免覆盖并发修改的新密码
+                if (userRepository.updatePasswordHash(userId, encodedPassword, newHash) > 0) {
+                    rehashCounter.increment();
+                    log.info("用户 {} 的密码已按 cost {} 重新哈希", userId, bcryptStrength);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("密码校验线程池繁忙，跳过重新哈希: {}", userId);
+        }
+    }
+}
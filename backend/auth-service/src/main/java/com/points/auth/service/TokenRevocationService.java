@@ -0,0 +1,135 @@
+package com.points.auth.service;
+
+import com.points.auth.repository.RevokedTokenRepository;
+import com.points.common.dto.TokenRevocationDTO;
+import com.points.common.security.JwtPrincipal;
+import com.points.common.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token吊销服务
+ *
+ * 吊销记录保存在 revoked_tokens 表中（重启和多实例部署不丢失），
+ * 同时写入本实例 JwtUtil 的内存吊销列表；其他 auth-service 实例定期从表中增量加载，
+ * 其他服务通过 /api/auth/revocations 同步（见 common 模块 TokenRevocationSync）
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * 增量加载时向前重叠的时间，避免其他实例并发提交的记录被漏掉
+     */
+    private static final long RELOAD_OVERLAP_MILLIS = 5000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JwtUtil jwtUtil;
+
+    @Value("${auth.revocation.sync-interval-ms:10000}")
+    private long reloadIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private volatile long lastRevokedAt;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 启动时加载全部未过期记录，之后增量加载其他实例的吊销记录
+        scheduler.scheduleWithFixedDelay(this::reload, 0, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::deleteExpired, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 吊销Token
+     *
+     * @return true 表示本次吊销成功，false 表示此前已被吊销
+     */
+    public boolean revoke(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            // 旧版本签发的Token没有 jti，无法单独吊销，只能等待过期
+            return true;
+        }
+        int inserted = revokedTokenRepository.insertIgnore(
+                principal.getTokenId(),
+                principal.getUserId(),
+                toLocalDateTime(principal.getExpiresAt()),
+                LocalDateTime.now());
+        jwtUtil.revoke(principal.getTokenId(), principal.getExpiresAt());
+        return inserted > 0;
+    }
+
+    /**
+     * 查询指定时间之后吊销且尚未过期的记录
+     *
+     * @param since 毫秒时间戳
+     */
+    public List<TokenRevocationDTO> getRevocationsSince(long since) {
+        return revokedTokenRepository
+                .findByRevokedAtAfterAndExpiresAtAfterOrderByRevokedAtAsc(toLocalDateTime(since), LocalDateTime.now())
+                .stream()
+                .map(token -> new TokenRevocationDTO(
+                        token.getTokenId(),
+                        toMillis(token.getExpiresAt()),
+                        toMillis(token.getRevokedAt())))
+                .toList();
+    }
+
+    private void reload() {
+        try {
+            List<TokenRevocationDTO> revocations =
+                    getRevocationsSince(Math.max(0, lastRevokedAt - RELOAD_OVERLAP_MILLIS));
+            long latest = lastRevokedAt;
+            for (TokenRevocationDTO revocation : revocations) {
+                jwtUtil.revoke(revocation.getTokenId(), revocation.getExpiresAt());
+                latest = Math.max(latest, revocation.getRevokedAt());
+            }
+            lastRevokedAt = latest;
+        } catch (Exception e) {
+            log.warn("加载Token吊销记录失败: {}", e.getMessage());
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("已删除 {} 条过期的Token吊销记录", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("删除过期Token吊销记录失败: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
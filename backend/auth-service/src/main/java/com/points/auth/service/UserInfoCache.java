@@ -0,0 +1,199 @@
+package com.points.auth.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.points.auth.controller.AuthController.UserInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 用户信息两级缓存
+ *
+ * 1. 本地缓存：有容量上限，条目保存 local-ttl-ms，命中时不访问 Redis
+ * 2. Redis：多实例共享，条目保存 redis-ttl-ms
+ * 3. 都未命中时查询数据库并回填两级缓存
+ *
+ * 用户信息修改时（见 UserCacheListener）删除本实例本地缓存和 Redis 中的条目，
+ * 其他实例的本地缓存最多在 local-ttl-ms 后失效；
+ * Redis 不可用时跳过 Redis 并在 redis-retry-ms 内不再尝试，直接查询数据库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserInfoCache {
+
+    private static final String KEY_PREFIX = "auth:user-info:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.user-cache.local-max-size:10000}")
+    private int localMaxSize;
+
+    @Value("${auth.user-cache.local-ttl-ms:30000}")
+    private long localTtlMillis;
+
+    @Value("${auth.user-cache.redis-enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${auth.user-cache.redis-ttl-ms:600000}")
+    private long redisTtlMillis;
+
+    @Value("${auth.user-cache.redis-retry-ms:30000}")
+    private long redisRetryMillis;
+
+    private final Map<String, Entry> local = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Redis 出错后在此时间之前不再访问 Redis
+     */
+    private volatile long redisSuspendedUntil;
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        localHits = Counter.builder("auth.user_cache.requests").tag("result", "local").register(meterRegistry);
+        redisHits = Counter.builder("auth.user_cache.requests").tag("result", "redis").register(meterRegistry);
+        misses = Counter.builder("auth.user_cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("auth.user_cache.local.size", local, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 获取用户信息
+     *
+     * @param loader 缓存未命中时从数据库加载，返回 null 表示用户不存在（不缓存）
+     */
+    public UserInfo get(String userId, Function<String, UserInfo> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = local.get(userId);
+        if (entry != null && now < entry.expiresAt) {
+            localHits.increment();
+            return entry.userInfo;
+        }
+
+        UserInfo userInfo = readRedis(userId);
+        if (userInfo != null) {
+            redisHits.increment();
+        } else {
+            misses.increment();
+            userInfo = loader.apply(userId);
+            if (userInfo == null) {
+                return null;
+            }
+            writeRedis(userId, userInfo);
+        }
+        putLocal(userId, userInfo, now);
+        return userInfo;
+    }
+
+    /**
+     * 删除缓存的用户信息（用户信息修改后调用）
+     */
+    public void evict(String userId) {
+        local.remove(userId);
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(KEY_PREFIX + userId);
+        } catch (RuntimeException e) {
+            suspendRedis(e);
+        }
+    }
+
+    private UserInfo readRedis(String userId) {
+        if (!redisAvailable()) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return json != null ? objectMapper.readValue(json, UserInfo.class) : null;
+        } catch (JsonProcessingException e) {
+            log.warn("用户信息缓存数据格式错误: {}", userId);
+            return null;
+        } catch (RuntimeException e) {
+            suspendRedis(e);
+            return null;
+        }
+    }
+
+    private void writeRedis(String userId, UserInfo userInfo) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + userId, objectMapper.writeValueAsString(userInfo),
+                    Duration.ofMillis(redisTtlMillis));
+        } catch (JsonProcessingException e) {
+            log.warn("用户信息序列化失败: {}", userId);
+        } catch (RuntimeException e) {
+            suspendRedis(e);
+        }
+    }
+
+    private boolean redisAvailable() {
+        return redisEnabled && System.currentTimeMillis() >= redisSuspendedUntil;
+    }
+
+    private void suspendRedis(RuntimeException e) {
+        redisSuspendedUntil = System.currentTimeMillis() + redisRetryMillis;
+        log.warn("Redis 不可用，{}ms 内用户信息直接查询数据库: {}", redisRetryMillis, e.getMessage());
+    }
+
+    private void putLocal(String userId, UserInfo userInfo, long now) {
+        if (local.size() >= localMaxSize && !makeRoom(now)) {
+            return;
+        }
+        local.put(userId, new Entry(userInfo, now + localTtlMillis));
+    }
+
+    /**
+     * 本地缓存满时先清理过期条目，仍然不足则淘汰约 1/8 的条目
+     */
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            local.values().removeIf(entry -> now >= entry.expiresAt);
+            int target = localMaxSize - Math.max(1, localMaxSize / 8);
+            Iterator<String> iterator = local.keySet().iterator();
+            while (local.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            return local.size() < localMaxSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final UserInfo userInfo;
+        final long expiresAt;
+
+        Entry(UserInfo userInfo, long expiresAt) {
+            this.userInfo = userInfo;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
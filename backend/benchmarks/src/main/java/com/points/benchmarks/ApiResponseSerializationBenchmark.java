@@ -0,0 +1,73 @@
+package com.points.benchmarks;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.points.common.dto.ApiResponse;
+import com.points.common.dto.PointsRecordDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 积分明细接口响应的 JSON 序列化：ApiResponse 包装 size 条 PointsRecordDTO
+ * ObjectMapper 按 points-service 的 spring.jackson 配置创建（忽略 null、东八区）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<PointsRecordDTO>> response;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .dateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"))
+                .timeZone(TimeZone.getTimeZone("Asia/Shanghai"))
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PointsRecordDTO> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            PointsRecordDTO dto = new PointsRecordDTO();
+            dto.setId("6f1c2b7e-1d2a-4c55-9a43-" + String.format("%012d", i));
+            dto.setDate(now.minusMinutes(i));
+            dto.setType(i % 3 == 0 ? "spend" : "earn");
+            dto.setPoints(i % 3 == 0 ? -100 : 50);
+            dto.setDescription("预订机票");
+            dto.setBalance(1000 + i);
+            dto.setDetails("成功预订北京-上海航班，订单号：FLT2025122800" + i + "，获得50积分");
+            records.add(dto);
+        }
+        response = ApiResponse.success(records);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,59 @@
+package com.points.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+/**
+ * 基准测试辅助方法
+ * 被测组件使用 @Value 字段注入，基准测试中不启动 Spring 容器，直接通过反射设置配置；
+ * 被测的私有方法通过 MethodHandle 调用
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static void setField(Object target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("无法设置字段 " + name, e);
+            }
+        }
+        throw new IllegalStateException("字段不存在: " + name);
+    }
+
+    /**
+     * 私有方法的 MethodHandle，第一个参数为方法所属对象
+     */
+    public static MethodHandle privateMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .unreflect(type.getDeclaredMethod(name, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法访问方法 " + name, e);
+        }
+    }
+
+    /**
+     * 创建私有嵌套类的实例（需要无参构造函数）
+     */
+    public static Object newInstance(String className) {
+        try {
+            Constructor<?> constructor = Class.forName(className).getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("无法创建 " + className, e);
+        }
+    }
+}
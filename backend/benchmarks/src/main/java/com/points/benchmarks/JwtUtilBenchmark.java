@@ -0,0 +1,107 @@
+package com.points.benchmarks;
+
+import com.points.common.security.JwtPrincipal;
+import com.points.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 基准测试：单个请求的认证开销
+ *
+ * legacy*：旧实现，每次调用重新创建密钥和解析器，控制器依次调用
+ *          validateToken、getUserIdFromToken、getRoleFromToken，共验签三次
+ * cached*：密钥和解析器只创建一次，但仍然验签三次
+ * verifyOnce：verifyToken 验签一次并返回 JwtPrincipal（不启用缓存）
+ * verifyCached：verifyToken 命中缓存，只计算Token摘要
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "3EtrLX3zwP8MARuBQdBojsLFZK07+TOKGNvJYJqeLtCzuuDSuVfDqc/5z8/CyElUYwVVbamDmithMryaXNDlZQ==";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil cachingJwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = newJwtUtil(0);
+        cachingJwtUtil = newJwtUtil(10000);
+        token = jwtUtil.generateToken("6f1c2b7e-1d2a-4c55-9a43-3f8f0f3c9b21", "test", "admin");
+    }
+
+    static JwtUtil newJwtUtil(int cacheMaxSize) {
+        JwtUtil util = new JwtUtil();
+        BenchmarkSupport.setField(util, "secret", SECRET);
+        BenchmarkSupport.setField(util, "expiration", 2592000000L);
+        BenchmarkSupport.setField(util, "refreshExpiration", 7776000000L);
+        BenchmarkSupport.setField(util, "cacheMaxSize", cacheMaxSize);
+        BenchmarkSupport.setField(util, "cacheTtlMillis", 300000L);
+        util.init();
+        return util;
+    }
+
+    @Benchmark
+    public void legacyValidateThenExtract(Blackhole bh) {
+        Claims validated = legacyParse(token);
+        bh.consume(!validated.getExpiration().before(new Date()));
+        bh.consume(legacyParse(token).get("userId", String.class));
+        bh.consume(legacyParse(token).get("role", String.class));
+    }
+
+    @Benchmark
+    public void cachedValidateThenExtract(Blackhole bh) {
+        bh.consume(jwtUtil.validateToken(token));
+        bh.consume(jwtUtil.getUserIdFromToken(token));
+        bh.consume(jwtUtil.getRoleFromToken(token));
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyOnce() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cachingJwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("6f1c2b7e-1d2a-4c55-9a43-3f8f0f3c9b21", "test", "admin");
+    }
+
+    /**
+     * 旧版 JwtUtil.getClaimsFromToken 的实现
+     */
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,128 @@
+package com.points.benchmarks;
+
+import com.points.common.dto.ExchangeRecordDTO;
+import com.points.common.dto.PointsRecordDTO;
+import com.points.points.entity.ExchangeRecord;
+import com.points.points.entity.PointsRecord;
+import com.points.points.service.PointsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointsService 实体到 DTO 的转换：积分明细（getRecords）和兑换记录（管理后台兑换列表）
+ * 每次调用转换 size 条记录，与一次接口请求的返回条数相当
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PointsMappingBenchmark {
+
+    private static final String USER_INFO_CLASS = "com.points.points.service.PointsService$UserInfo";
+
+    @Param({"20", "500"})
+    private int size;
+
+    private PointsService pointsService;
+    private MethodHandle convertToDTO;
+    private MethodHandle convertExchangeToDTO;
+
+    private List<PointsRecord> records;
+    private List<ExchangeRecord> exchanges;
+    private Map<String, Object> userInfoMap;
+    private Map<String, String> productNameMap;
+
+    @Setup
+    public void setup() throws Exception {
+        // 转换方法不使用任何依赖，构造参数全部为 null
+        Constructor<?> constructor = PointsService.class.getConstructors()[0];
+        pointsService = (PointsService) constructor.newInstance(new Object[constructor.getParameterCount()]);
+        convertToDTO = BenchmarkSupport.privateMethod(PointsService.class, "convertToDTO", PointsRecord.class);
+        convertExchangeToDTO = BenchmarkSupport.privateMethod(PointsService.class, "convertExchangeToDTO",
+                ExchangeRecord.class, Map.class, Map.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        records = new ArrayList<>(size);
+        exchanges = new ArrayList<>(size);
+        userInfoMap = new HashMap<>();
+        productNameMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            String userId = "user-" + (i % 50);
+            String productId = "product-" + (i % 20);
+
+            PointsRecord record = new PointsRecord();
+            record.setId("record-" + i);
+            record.setUserId(userId);
+            record.setType(i % 3 == 0 ? "spend" : "earn");
+            record.setPoints(i % 3 == 0 ? -100 : 50);
+            record.setDescription("预订机票");
+            record.setBalance(1000 + i);
+            record.setDetails("成功预订北京-上海航班，订单号：FLT2025122800" + i + "，获得50积分");
+            record.setCreatedAt(now.minusMinutes(i));
+            records.add(record);
+
+            ExchangeRecord exchange = new ExchangeRecord();
+            exchange.setId("exchange-" + i);
+            exchange.setUserId(userId);
+            exchange.setProductId(productId);
+            exchange.setQuantity(1);
+            exchange.setPoints(500);
+            exchange.setStatus("completed");
+            exchange.setCouponCode("CPN" + i);
+            exchange.setCreatedAt(now.minusMinutes(i));
+            exchange.setUpdatedAt(now.minusMinutes(i));
+            exchanges.add(exchange);
+
+            userInfoMap.computeIfAbsent(userId, this::userInfo);
+            productNameMap.put(productId, "商品" + (i % 20));
+        }
+    }
+
+    private Object userInfo(String userId) {
+        Object info = BenchmarkSupport.newInstance(USER_INFO_CLASS);
+        BenchmarkSupport.setField(info, "id", userId);
+        BenchmarkSupport.setField(info, "username", userId);
+        BenchmarkSupport.setField(info, "nickname", "昵称" + userId);
+        BenchmarkSupport.setField(info, "phone", "13800138000");
+        return info;
+    }
+
+    @Benchmark
+    public List<PointsRecordDTO> convertRecords() throws Throwable {
+        List<PointsRecordDTO> result = new ArrayList<>(records.size());
+        for (PointsRecord record : records) {
+            result.add((PointsRecordDTO) convertToDTO.invoke(pointsService, record));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ExchangeRecordDTO> convertExchanges() throws Throwable {
+        List<ExchangeRecordDTO> result = new ArrayList<>(exchanges.size());
+        for (ExchangeRecord exchange : exchanges) {
+            result.add((ExchangeRecordDTO) convertExchangeToDTO.invoke(
+                    pointsService, exchange, userInfoMap, productNameMap));
+        }
+        return result;
+    }
+}
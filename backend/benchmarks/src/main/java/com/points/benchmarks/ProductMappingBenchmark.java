@@ -0,0 +1,101 @@
+package com.points.benchmarks;
+
+import com.points.common.dto.ProductDTO;
+import com.points.product.entity.Product;
+import com.points.product.entity.ProductUsage;
+import com.points.product.repository.ProductUsageRepository;
+import com.points.product.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService.convertToDTO：产品列表接口对每个产品调用一次
+ *
+ * anonymous：未登录，不查询本月使用次数
+ * loggedIn：登录用户，每个产品查询一次本月使用次数（仓库替换为内存实现，只测转换本身的开销）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private static final int PRODUCT_COUNT = 50;
+    private static final String USER_ID = "6f1c2b7e-1d2a-4c55-9a43-3f8f0f3c9b21";
+
+    private ProductService productService;
+    private MethodHandle convertToDTO;
+    private List<Product> products;
+
+    @Setup
+    public void setup() {
+        ProductUsage usage = new ProductUsage();
+        usage.setCount(1);
+        Optional<ProductUsage> found = Optional.of(usage);
+        ProductUsageRepository usageRepository = (ProductUsageRepository) Proxy.newProxyInstance(
+                ProductUsageRepository.class.getClassLoader(),
+                new Class<?>[]{ProductUsageRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUserAndProductAndMonth")) {
+                        return found;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        productService = new ProductService(null, usageRepository, null);
+        convertToDTO = BenchmarkSupport.privateMethod(ProductService.class, "convertToDTO",
+                Product.class, String.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = new Product();
+            product.setId("product-" + i);
+            product.setName("商品" + i);
+            product.setPoints(100 * (i + 1));
+            product.setDescription("商品" + i + "的详细描述，兑换后生成优惠券码");
+            product.setStock(i % 5 == 0 ? null : 100);
+            product.setImage("https://example.com/images/" + i + ".png");
+            product.setMonthlyLimit(i % 2 == 0 ? 3 : null);
+            product.setStatus(1);
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+        }
+    }
+
+    @Benchmark
+    public List<ProductDTO> anonymous() throws Throwable {
+        return convertAll(null);
+    }
+
+    @Benchmark
+    public List<ProductDTO> loggedIn() throws Throwable {
+        return convertAll(USER_ID);
+    }
+
+    private List<ProductDTO> convertAll(String userId) throws Throwable {
+        List<ProductDTO> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            result.add((ProductDTO) convertToDTO.invoke(productService, product, userId));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package com.points.benchmarks;
+
+import com.points.points.service.InMemoryVerificationCodeStore;
+import com.points.points.service.SmsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SmsService.verifyCode 在多线程下的吞吐量（默认的内存验证码存储）
+ *
+ * saveThenVerify：每个线程使用自己的一组手机号，保存验证码后立即验证通过
+ * verifyMismatchHotPhone：所有线程对同一批手机号输入错误验证码（验证码不会被删除），模拟集中刷验证码
+ * 日志级别见 logback.xml，验证日志不输出
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class SmsServiceBenchmark {
+
+    private static final int PHONES_PER_THREAD = 1024;
+    private static final int HOT_PHONES = 16;
+    private static final long TTL_MILLIS = 300_000;
+
+    private InMemoryVerificationCodeStore store;
+    private SmsService smsService;
+
+    @Setup
+    public void setup() {
+        store = new InMemoryVerificationCodeStore(new SimpleMeterRegistry());
+        BenchmarkSupport.setField(store, "maxSize", 100_000);
+        BenchmarkSupport.setField(store, "sweepIntervalMillis", 5000L);
+        store.init();
+        // 验证不使用发送队列和限流
+        smsService = new SmsService(store, null, null);
+        for (int i = 0; i < HOT_PHONES; i++) {
+            store.save(HOT_PHONE_NUMBERS[i], "123456", TTL_MILLIS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPhones {
+
+        private String[] phones;
+        private int next;
+        private int nextHot;
+
+        @Setup
+        public void setup(ThreadParams params) {
+            phones = new String[PHONES_PER_THREAD];
+            for (int i = 0; i < PHONES_PER_THREAD; i++) {
+                phones[i] = String.format("139%04d%04d", params.getThreadIndex(), i);
+            }
+        }
+
+        String next() {
+            String phone = phones[next];
+            next = (next + 1) & (PHONES_PER_THREAD - 1);
+            return phone;
+        }
+
+        String nextHot() {
+            nextHot = (nextHot + 1) & (HOT_PHONES - 1);
+            return HOT_PHONE_NUMBERS[nextHot];
+        }
+    }
+
+    private static final String[] HOT_PHONE_NUMBERS = new String[HOT_PHONES];
+
+    static {
+        for (int i = 0; i < HOT_PHONES; i++) {
+            HOT_PHONE_NUMBERS[i] = String.format("1380000%04d", i);
+        }
+    }
+
+    @Benchmark
+    public boolean saveThenVerify(ThreadPhones phones) {
+        String phone = phones.next();
+        store.save(phone, "654321", TTL_MILLIS);
+        return smsService.verifyCode(phone, "654321").isSuccess();
+    }
+
+    @Benchmark
+    public boolean verifyMismatchHotPhone(ThreadPhones phones) {
+        return smsService.verifyCode(phones.nextHot(), "000000").isSuccess();
+    }
+}
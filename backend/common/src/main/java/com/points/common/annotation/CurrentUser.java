@@ -0,0 +1,16 @@
+package com.points.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 注入当前登录用户（JwtPrincipal）的注解
+ * required 为 true 时未登录请求直接返回401，不会进入控制器方法
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+    boolean required() default true;
+}
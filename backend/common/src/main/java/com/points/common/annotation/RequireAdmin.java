@@ -7,8 +7,9 @@ import java.lang.annotation.Target;
 
 /**
  * 需要管理员权限的注解
+ * 由 AuthInterceptor 统一校验，可以标注在控制器方法或控制器类上
  */
-@Target(ElementType.METHOD)
+@Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface RequireAdmin {
 }
@@ -0,0 +1,16 @@
+package com.points.common.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只允许内部服务调用的注解
+ * 调用方需携带用内部密钥签名、角色为 service 的身份头（见 InternalIdentity.signServiceHeaders），
+ * 由 AuthInterceptor 统一校验，可以标注在控制器方法或控制器类上
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireService {
+}
@@ -3,11 +3,13 @@ package com.points.common.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.slf4j.MDC;
 
 import java.io.Serializable;
 
 /**
  * 统一API响应格式
+ * 错误响应带 traceId（当前请求的链路追踪ID），便于按 traceId 查询日志和调用链
  */
 @Data
 @NoArgsConstructor
@@ -19,21 +21,22 @@ public class ApiResponse<T> implements Serializable {
     private String message;
     private T data;
     private Long timestamp;
+    private String traceId;
 
     public static <T> ApiResponse<T> success(T data) {
-        return new ApiResponse<>(200, "操作成功", data, System.currentTimeMillis());
+        return new ApiResponse<>(200, "操作成功", data, System.currentTimeMillis(), null);
     }
 
     public static <T> ApiResponse<T> success(String message, T data) {
-        return new ApiResponse<>(200, message, data, System.currentTimeMillis());
+        return new ApiResponse<>(200, message, data, System.currentTimeMillis(), null);
     }
 
     public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(500, message, null, System.currentTimeMillis());
+        return new ApiResponse<>(500, message, null, System.currentTimeMillis(), MDC.get("traceId"));
     }
 
     public static <T> ApiResponse<T> error(Integer code, String message) {
-        return new ApiResponse<>(code, message, null, System.currentTimeMillis());
+        return new ApiResponse<>(code, message, null, System.currentTimeMillis(), MDC.get("traceId"));
     }
 }
 
@@ -0,0 +1,35 @@
+package com.points.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 兑换资格DTO
+ * 一次返回用户积分余额和每个上架产品的可兑换情况
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeEligibilityDTO {
+    private Integer balance;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String productId;
+        private String name;
+        private Integer points;
+        private Integer stock;
+        private Integer monthlyLimit; // 0表示不限制
+        private Integer usedThisMonth;
+        private Integer remainingThisMonth; // 不限制时为空
+        private Integer maxQuantity; // 当前最多可兑换数量
+        private Boolean eligible;
+        private String reason; // 不可兑换原因
+    }
+}
@@ -0,0 +1,33 @@
+package com.points.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 产品批量导入结果DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResult {
+    private Integer totalRows;
+    private Integer imported;
+    private Integer failed;
+    private List<RowError> errors = new ArrayList<>();
+    private Long catalogVersion;
+
+    /**
+     * 行级错误（行号从1开始，CSV不含表头行）
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private Integer row;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.points.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 产品搜索结果DTO
+ * nextCursor 为空表示没有下一页
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResult {
+    private List<ProductDTO> items;
+    private Integer total;
+    private String nextCursor;
+    private Long catalogVersion;
+}
@@ -0,0 +1,18 @@
+package com.points.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token吊销记录DTO
+ * 由 auth-service 提供，其他服务定期同步到本地吊销列表
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocationDTO {
+    private String tokenId; // jti
+    private Long expiresAt; // Token过期时间（毫秒时间戳），过期后记录不再需要
+    private Long revokedAt; // 吊销时间（毫秒时间戳），用于增量同步
+}
@@ -0,0 +1,92 @@
+package com.points.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.points.common.annotation.CurrentUser;
+import com.points.common.annotation.RequireAdmin;
+import com.points.common.annotation.RequireService;
+import com.points.common.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 认证拦截器
+ * 1. 方法参数带 @CurrentUser（required = true）时要求已登录
+ * 2. 方法或类带 @RequireAdmin 时要求管理员角色
+ * 3. 方法或类带 @RequireService 时要求内部服务身份
+ * 校验失败直接写出统一响应（与原控制器返回的 code/message 一致），不进入控制器方法
+ */
+@RequiredArgsConstructor
+public class AuthInterceptor implements HandlerInterceptor {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 每个控制器方法的认证要求只计算一次
+     */
+    private final Map<HandlerMethod, Requirement> requirements = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Requirement requirement = requirements.computeIfAbsent(handlerMethod, AuthInterceptor::requirementOf);
+        if (requirement == Requirement.NONE) {
+            return true;
+        }
+
+        JwtPrincipal principal = AuthenticationFilter.getPrincipal(request);
+        if (principal == null) {
+            String message = AuthenticationFilter.isTokenPresent(request) ? "Token无效或已过期" : "需要认证";
+            writeError(response, ApiResponse.error(401, message));
+            return false;
+        }
+        if (requirement == Requirement.ADMIN && !principal.isAdmin()) {
+            writeError(response, ApiResponse.error(403, "需要管理员权限"));
+            return false;
+        }
+        if (requirement == Requirement.SERVICE && !principal.isService()) {
+            writeError(response, ApiResponse.error(403, "只允许内部服务调用"));
+            return false;
+        }
+        return true;
+    }
+
+    private static Requirement requirementOf(HandlerMethod handlerMethod) {
+        if (handlerMethod.hasMethodAnnotation(RequireService.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(RequireService.class)) {
+            return Requirement.SERVICE;
+        }
+        if (handlerMethod.hasMethodAnnotation(RequireAdmin.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(RequireAdmin.class)) {
+            return Requirement.ADMIN;
+        }
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            CurrentUser currentUser = parameter.getParameterAnnotation(CurrentUser.class);
+            if (currentUser != null && currentUser.required()) {
+                return Requirement.AUTHENTICATED;
+            }
+        }
+        return Requirement.NONE;
+    }
+
+    private void writeError(HttpServletResponse response, ApiResponse<?> body) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getWriter(), body);
+    }
+
+    private enum Requirement {
+        NONE,
+        AUTHENTICATED,
+        ADMIN,
+        SERVICE
+    }
+}
@@ -0,0 +1,64 @@
+package com.points.common.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.points.common.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 公共认证配置
+ * 扫描 com.points.common 的服务会自动启用：认证过滤器、@CurrentUser 参数解析、@RequireAdmin 校验
+ * 配置了 auth.internal.secret 时，认证过滤器同时接受网关签名的内部身份头
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class AuthWebConfig implements WebMvcConfigurer {
+
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+
+    @Value("${auth.internal.secret:}")
+    private String internalSecret;
+
+    @Value("${auth.internal.max-skew-ms:60000}")
+    private long internalMaxSkewMillis;
+
+    @Bean
+    public FilterRegistrationBean<AuthenticationFilter> authenticationFilter() {
+        FilterRegistrationBean<AuthenticationFilter> registration =
+                new FilterRegistrationBean<>(new AuthenticationFilter(jwtUtil, internalIdentity()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private InternalIdentity internalIdentity() {
+        if (internalSecret == null || internalSecret.isBlank()) {
+            log.info("未配置 auth.internal.secret，只通过 JWT 认证");
+            return null;
+        }
+        return new InternalIdentity(internalSecret, internalMaxSkewMillis);
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new AuthInterceptor(objectMapper)).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public void addArgumentResolvers(@NonNull List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
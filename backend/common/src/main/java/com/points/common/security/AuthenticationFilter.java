@@ -0,0 +1,92 @@
+package com.points.common.security;
+
+import com.points.common.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 认证过滤器
+ * 每个请求只认证一次，验证通过后把 JwtPrincipal 放入请求属性：
+ * 1. 请求经过网关且带有有效的内部身份签名时，直接信任 X-User-* 头，不再解析 JWT（仍检查是否已吊销）
+ * 2. 否则解析 Authorization 头中的 Bearer Token
+ * 3. 没有 Token 的服务间调用只接受签名有效的服务身份（角色 service）
+ * 这里不拒绝请求，是否需要登录由 AuthInterceptor 根据控制器方法决定
+ */
+@RequiredArgsConstructor
+public class AuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = AuthenticationFilter.class.getName() + ".principal";
+    public static final String TOKEN_PRESENT_ATTRIBUTE = AuthenticationFilter.class.getName() + ".tokenPresent";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    /**
+     * 内部身份校验，未配置内部密钥时为 null（只接受 JWT）
+     */
+    private final InternalIdentity internalIdentity;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            request.setAttribute(TOKEN_PRESENT_ATTRIBUTE, Boolean.TRUE);
+            JwtPrincipal principal = verifyInternalIdentity(request);
+            if (principal == null) {
+                principal = jwtUtil.verifyToken(header.substring(BEARER_PREFIX.length()));
+            } else if (jwtUtil.isRevoked(principal)) {
+                // 网关缓存了验签结果，吊销检查在服务端进行
+                principal = null;
+            }
+            if (principal != null) {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        } else {
+            JwtPrincipal principal = verifyInternalIdentity(request);
+            if (principal != null && principal.isService()) {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private JwtPrincipal verifyInternalIdentity(HttpServletRequest request) {
+        if (internalIdentity == null) {
+            return null;
+        }
+        String signature = request.getHeader(InternalIdentity.HEADER_SIGNATURE);
+        if (signature == null) {
+            return null;
+        }
+        return internalIdentity.verify(
+                request.getHeader(InternalIdentity.HEADER_USER_ID),
+                request.getHeader(InternalIdentity.HEADER_USER_NAME),
+                request.getHeader(InternalIdentity.HEADER_USER_ROLE),
+                request.getHeader(InternalIdentity.HEADER_EXPIRES),
+                request.getHeader(InternalIdentity.HEADER_TOKEN_ID),
+                request.getHeader(InternalIdentity.HEADER_TIMESTAMP),
+                signature);
+    }
+
+    /**
+     * 获取当前请求已验证的身份信息，未登录或Token无效时返回 null
+     */
+    public static JwtPrincipal getPrincipal(HttpServletRequest request) {
+        return (JwtPrincipal) request.getAttribute(PRINCIPAL_ATTRIBUTE);
+    }
+
+    /**
+     * 当前请求是否携带了 Bearer Token（无论是否有效）
+     */
+    public static boolean isTokenPresent(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(TOKEN_PRESENT_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,140 @@
+package com.points.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关转发的内部身份凭证
+ *
+ * 网关验证 JWT 后转发 X-User-* 头，并用内部密钥对这些头做 HMAC-SHA256 签名，
+ * 后端服务只需校验签名即可信任身份，不必再次解析 JWT。
+ * 签名内容：userId \n username \n role \n expiresAt \n tokenId \n timestamp（用户名按 UTF-8 URL 编码）
+ *
+ * 服务间调用（如同步Token吊销列表）使用角色为 service 的服务身份，见 signServiceHeaders
+ *
+ * 注意：api-gateway 不依赖 common 模块，其中 InternalIdentitySigner 的签名格式必须与这里保持一致
+ */
+public class InternalIdentity {
+
+    public static final String HEADER_USER_ID = "X-User-Id";
+    public static final String HEADER_USER_NAME = "X-User-Name";
+    public static final String HEADER_USER_ROLE = "X-User-Role";
+    public static final String HEADER_EXPIRES = "X-Auth-Expires";
+    public static final String HEADER_TOKEN_ID = "X-Token-Id";
+    public static final String HEADER_TIMESTAMP = "X-Auth-Timestamp";
+    public static final String HEADER_SIGNATURE = "X-Auth-Signature";
+
+    /**
+     * 内部服务身份的角色，网关签发的用户身份不会使用该角色
+     */
+    public static final String ROLE_SERVICE = "service";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final long maxSkewMillis;
+
+    /**
+     * Mac 不是线程安全的，每个线程复用一个实例
+     */
+    private final ThreadLocal<Mac> macs;
+
+    public InternalIdentity(String secret, long maxSkewMillis) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.maxSkewMillis = maxSkewMillis;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * 校验内部身份头
+     *
+     * @return 身份信息，缺少头、签名不符、时间戳超出允许偏差或 Token 已过期时返回 null
+     */
+    public JwtPrincipal verify(String userId, String encodedUsername, String role,
+                               String expires, String tokenId, String timestamp, String signature) {
+        if (userId == null || expires == null || timestamp == null || signature == null) {
+            return null;
+        }
+        long expiresAt;
+        long issuedAt;
+        try {
+            expiresAt = Long.parseLong(expires);
+            issuedAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (expiresAt <= now || Math.abs(now - issuedAt) > maxSkewMillis) {
+            return null;
+        }
+
+        String name = encodedUsername != null ? encodedUsername : "";
+        String roleValue = role != null ? role : "";
+        String tokenIdValue = tokenId != null ? tokenId : "";
+        byte[] expected = sign(canonical(userId, name, roleValue, expiresAt, tokenIdValue, issuedAt));
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return null;
+        }
+        String username = name.isEmpty() ? null : URLDecoder.decode(name, StandardCharsets.UTF_8);
+        return new JwtPrincipal(userId, username, roleValue.isEmpty() ? null : roleValue, expiresAt,
+                tokenIdValue.isEmpty() ? null : tokenIdValue);
+    }
+
+    /**
+     * 生成内部服务身份头，有效期与允许的时间戳偏差相同
+     *
+     * @param serviceName 调用方服务名，作为身份的 userId
+     */
+    public Map<String, String> signServiceHeaders(String serviceName) {
+        long timestamp = System.currentTimeMillis();
+        long expiresAt = timestamp + maxSkewMillis;
+        byte[] signature = sign(canonical(serviceName, "", ROLE_SERVICE, expiresAt, "", timestamp));
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(HEADER_USER_ID, serviceName);
+        headers.put(HEADER_USER_ROLE, ROLE_SERVICE);
+        headers.put(HEADER_EXPIRES, String.valueOf(expiresAt));
+        headers.put(HEADER_TIMESTAMP, String.valueOf(timestamp));
+        headers.put(HEADER_SIGNATURE, Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+        return headers;
+    }
+
+    /**
+     * 对用户名做 URL 编码（HTTP 头只能安全携带 ASCII）
+     */
+    public static String encodeUsername(String username) {
+        return username == null ? "" : URLEncoder.encode(username, StandardCharsets.UTF_8);
+    }
+
+    private static String canonical(String userId, String encodedUsername, String role, long expiresAt,
+                                    String tokenId, long timestamp) {
+        return userId + "\n" + encodedUsername + "\n" + role + "\n" + expiresAt + "\n" + tokenId + "\n" + timestamp;
+    }
+
+    private byte[] sign(String content) {
+        return macs.get().doFinal(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化内部身份签名失败", e);
+        }
+    }
+}
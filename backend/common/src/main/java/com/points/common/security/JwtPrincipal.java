@@ -0,0 +1,39 @@
+package com.points.common.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * 已验证的JWT身份信息
+ * 由 JwtUtil.verifyToken 一次验签后得到，后续读取用户ID、角色不再解析Token
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class JwtPrincipal implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String userId;
+    private final String username;
+    private final String role;
+    private final long expiresAt; // 过期时间（毫秒时间戳）
+    private final String tokenId; // Token唯一ID（jti），用于吊销，旧Token没有该字段时为 null
+
+    public boolean isAdmin() {
+        return "admin".equals(role);
+    }
+
+    /**
+     * 是否为内部服务身份（服务间调用，不对应任何用户）
+     */
+    public boolean isService() {
+        return InternalIdentity.ROLE_SERVICE.equals(role);
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.points.common.security;
+
+import com.points.common.util.JwtUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已验证Token缓存的指标，名称与 Micrometer 的缓存指标一致（cache=jwt-verified-token）：
+ * cache.gets（result=hit/miss）、cache.evictions、cache.size
+ * 未启用缓存（jwt.cache.max-size=0）时不注册
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenCacheMetrics implements MeterBinder {
+
+    private static final String CACHE_NAME = "jwt-verified-token";
+
+    private final JwtUtil jwtUtil;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        VerifiedTokenCache cache = jwtUtil.getTokenCache();
+        if (cache == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.gets", cache, VerifiedTokenCache::getHitCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .description("Token缓存命中次数")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, VerifiedTokenCache::getMissCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .description("Token缓存未命中次数")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", cache, VerifiedTokenCache::getEvictionCount)
+                .tag("cache", CACHE_NAME)
+                .description("Token缓存容量满时淘汰的条目数")
+                .register(registry);
+        Gauge.builder("cache.size", cache, VerifiedTokenCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Token缓存条目数")
+                .register(registry);
+    }
+}
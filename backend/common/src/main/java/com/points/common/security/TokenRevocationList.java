@@ -0,0 +1,136 @@
+package com.points.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 已吊销Token列表（按 jti）
+ *
+ * 1. 布隆过滤器作为快速路径：绝大多数Token未被吊销，只需计算两次哈希并检查几个比特位
+ * 2. 布隆过滤器命中时再查精确集合，排除误判
+ * 3. 条目保存到Token过期为止；布隆过滤器无法删除元素，purgeExpired 清理过期条目后整体重建
+ */
+public class TokenRevocationList {
+
+    private static final int HASH_FUNCTIONS = 7;
+
+    /**
+     * 布隆过滤器按每个元素 10 比特分配，k=7 时误判率约 1%
+     */
+    private static final int BITS_PER_ENTRY = 10;
+
+    private final int expectedEntries;
+
+    /**
+     * jti -> Token过期时间（毫秒时间戳）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(int expectedEntries) {
+        this.expectedEntries = Math.max(1024, expectedEntries);
+        this.filter = new BloomFilter(this.expectedEntries * BITS_PER_ENTRY);
+    }
+
+    /**
+     * 吊销Token（重复吊销无副作用）
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (revoked.putIfAbsent(tokenId, expiresAt) == null) {
+            filter.add(tokenId);
+        }
+    }
+
+    /**
+     * Token是否已吊销，没有 jti 的旧Token视为未吊销
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * 清理已过期的条目并重建布隆过滤器
+     * 条目数超过预期时按实际数量扩容，保持误判率
+     */
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        int capacity = Math.max(expectedEntries, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity * BITS_PER_ENTRY);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        // 重建期间新增的条目可能只写入了旧过滤器，补写一次
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+
+        BloomFilter(long bitCount) {
+            int words = (int) ((bitCount + 63) / 64);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+        }
+
+        void add(String value) {
+            long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+            long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash1 = hash(value, 0x9E3779B97F4A7C15L);
+            long hash2 = hash(value, 0xC2B2AE3D27D4EB4FL);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 64位 FNV-1a 加 murmur3 终结混合，seed 不同得到两个独立哈希
+         */
+        private static long hash(String value, long seed) {
+            long h = 0xCBF29CE484222325L ^ seed;
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            for (byte b : bytes) {
+                h ^= b & 0xFF;
+                h *= 0x100000001B3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.points.common.security;
+
+import com.points.common.dto.ApiResponse;
+import com.points.common.dto.TokenRevocationDTO;
+import com.points.common.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token吊销列表同步
+ *
+ * 1. 配置了 auth.revocation.sync-url 时，定期从 auth-service 增量拉取吊销记录写入 JwtUtil 的吊销列表，
+ *    请求携带用 auth.internal.secret 签名的服务身份头（吊销列表接口只允许内部服务调用）
+ * 2. 定期清理已过期的吊销记录并重建布隆过滤器
+ * 请求路径上不访问任何外部存储，吊销最多延迟一个同步周期生效
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationSync {
+
+    /**
+     * 增量同步时向前重叠的时间，避免并发提交的吊销记录因时间戳先后被漏掉
+     */
+    private static final long SYNC_OVERLAP_MILLIS = 5000;
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${auth.revocation.sync-url:}")
+    private String syncUrl;
+
+    @Value("${spring.application.name:unknown}")
+    private String applicationName;
+
+    @Value("${auth.internal.secret:}")
+    private String internalSecret;
+
+    @Value("${auth.internal.max-skew-ms:60000}")
+    private long internalMaxSkewMillis;
+
+    @Value("${auth.revocation.sync-interval-ms:10000}")
+    private long syncIntervalMillis;
+
+    @Value("${auth.revocation.purge-interval-ms:600000}") // 10分钟
+    private long purgeIntervalMillis;
+
+    private ScheduledExecutorService scheduler;
+    private RestTemplate restTemplate;
+    private InternalIdentity internalIdentity;
+    private long lastRevokedAt;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::purge, purgeIntervalMillis, purgeIntervalMillis, TimeUnit.MILLISECONDS);
+
+        if (syncUrl != null && !syncUrl.isBlank()) {
+            if (internalSecret == null || internalSecret.isBlank()) {
+                log.warn("未配置 auth.internal.secret，无法同步Token吊销列表");
+                return;
+            }
+            internalIdentity = new InternalIdentity(internalSecret, internalMaxSkewMillis);
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(2000);
+            requestFactory.setReadTimeout(5000);
+            restTemplate = new RestTemplate(requestFactory);
+            scheduler.scheduleWithFixedDelay(this::sync, 0, syncIntervalMillis, TimeUnit.MILLISECONDS);
+            log.info("Token吊销列表同步已启用: {}，间隔 {}ms", syncUrl, syncIntervalMillis);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void sync() {
+        try {
+            long since = Math.max(0, lastRevokedAt - SYNC_OVERLAP_MILLIS);
+            ApiResponse<List<TokenRevocationDTO>> response = restTemplate.exchange(
+                    syncUrl + "?since=" + since,
+                    HttpMethod.GET,
+                    new HttpEntity<>(serviceHeaders()),
+                    new ParameterizedTypeReference<ApiResponse<List<TokenRevocationDTO>>>() {}
+            ).getBody();
+            if (response == null || response.getCode() != 200 || response.getData() == null) {
+                log.warn("同步Token吊销列表失败: {}", response != null ? response.getMessage() : "无响应");
+                return;
+            }
+            for (TokenRevocationDTO revocation : response.getData()) {
+                if (revocation.getTokenId() == null || revocation.getExpiresAt() == null) {
+                    continue;
+                }
+                jwtUtil.revoke(revocation.getTokenId(), revocation.getExpiresAt());
+                if (revocation.getRevokedAt() != null && revocation.getRevokedAt() > lastRevokedAt) {
+                    lastRevokedAt = revocation.getRevokedAt();
+                }
+            }
+        } catch (Exception e) {
+            // auth-service 不可用时保留本地已有的吊销列表，下个周期重试
+            log.warn("同步Token吊销列表异常: {}", e.getMessage());
+        }
+    }
+
+    private HttpHeaders serviceHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        internalIdentity.signServiceHeaders(applicationName).forEach(headers::set);
+        return headers;
+    }
+
+    private void purge() {
+        try {
+            jwtUtil.getRevocationList().purgeExpired();
+        } catch (Exception e) {
+            log.warn("清理Token吊销列表异常: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.points.common.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 已验证Token缓存
+ *
+ * 1. 键为Token的 SHA-256 摘要前128位，不保存Token原文，每个条目占用固定大小
+ * 2. 条目保存到 min(Token过期时间, 写入时间 + ttl)
+ * 3. 容量有上限：满时先清理过期条目，仍然不足则淘汰约 1/8 的条目，
+ *    同一时刻只有一个线程执行清理，其余线程本次不写入缓存
+ * 4. 只缓存验证通过的Token，无效Token不占用缓存
+ * 缓存的身份信息完全来自Token本身，不需要主动失效：退出登录等吊销由 JwtUtil 在命中后检查吊销列表，
+ * 角色变更只对新签发的Token生效
+ */
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<TokenKey, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * MessageDigest 不是线程安全的，每个线程复用一个实例
+     */
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    });
+
+    public VerifiedTokenCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 计算Token的缓存键，同一个Token在 get/put 之间只计算一次摘要
+     */
+    public static TokenKey keyOf(String token) {
+        byte[] digest = DIGESTS.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (digest[i] & 0xFF);
+            low = (low << 8) | (digest[i + 8] & 0xFF);
+        }
+        return new TokenKey(high, low);
+    }
+
+    /**
+     * 获取缓存的身份信息，未命中或已过期时返回 null
+     */
+    public JwtPrincipal get(TokenKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    public void put(TokenKey key, JwtPrincipal principal) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(principal.getExpiresAt(), now + ttlMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !makeRoom(now)) {
+            return;
+        }
+        entries.put(key, new Entry(principal, expiresAt));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean makeRoom(long now) {
+        if (!evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (entries.size() < maxSize) {
+                return true;
+            }
+            int before = entries.size();
+            entries.values().removeIf(entry -> now >= entry.expiresAt);
+            int target = maxSize - Math.max(1, maxSize / 8);
+            Iterator<TokenKey> iterator = entries.keySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            evictions.add(Math.max(0, before - entries.size()));
+            return entries.size() < maxSize;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Token摘要（128位）
+     */
+    public static final class TokenKey {
+        private final long high;
+        private final long low;
+
+        TokenKey(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TokenKey other)) {
+                return false;
+            }
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high) * 31 + Long.hashCode(low);
+        }
+    }
+
+    private static final class Entry {
+        final JwtPrincipal principal;
+        final long expiresAt;
+
+        Entry(JwtPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
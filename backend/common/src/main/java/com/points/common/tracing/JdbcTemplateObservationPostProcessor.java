@@ -0,0 +1,74 @@
+package com.points.common.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 为 JdbcTemplate 的查询、更新调用创建 Observation（名称 db.jdbc）
+ * JdbcTemplate Bean 被替换为类代理，注入方式不变；SQL 记录为 Span 属性 db.statement（只含占位符，不含参数值）
+ */
+@Component
+@ConditionalOnClass(name = "org.springframework.jdbc.core.JdbcTemplate")
+public class JdbcTemplateObservationPostProcessor implements BeanPostProcessor {
+
+    private static final Set<String> OBSERVED_METHODS = Set.of(
+            "query", "queryForObject", "queryForList", "queryForMap", "queryForRowSet", "queryForStream",
+            "update", "batchUpdate", "execute", "call");
+
+    /**
+     * 延迟获取：BeanPostProcessor 创建时 ObservationRegistry 还未初始化
+     */
+    private final Supplier<ObservationRegistry> observationRegistry;
+
+    public JdbcTemplateObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = SingletonSupplier.of(
+                () -> observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof JdbcTemplate)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor());
+        return proxyFactory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    private MethodInterceptor interceptor() {
+        return invocation -> {
+            String method = invocation.getMethod().getName();
+            if (!OBSERVED_METHODS.contains(method)) {
+                return invocation.proceed();
+            }
+            Object[] arguments = invocation.getArguments();
+            Observation observation = Observation.createNotStarted("db.jdbc", observationRegistry.get())
+                    .contextualName("JdbcTemplate." + method)
+                    .lowCardinalityKeyValue("method", method);
+            if (arguments.length > 0 && arguments[0] instanceof String sql) {
+                observation.highCardinalityKeyValue("db.statement", sql);
+            }
+            observation.start();
+            try (Observation.Scope ignored = observation.openScope()) {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.points.common.tracing;
+
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 公共链路追踪配置（Micrometer Tracing + OpenTelemetry）
+ *
+ * 1. tracing.exporter 选择 Span 导出方式：otlp（发送到 OpenTelemetry Collector、Jaeger 等）、
+ *    log（写入日志，本地开发使用）、none（不导出，日志和错误响应中仍有 traceId）
+ * 2. 采样比例由 management.tracing.sampling.probability 控制
+ * 3. 服务间调用使用 RestTemplateBuilder 构建的 RestTemplate，自动传递 traceparent 头
+ * 4. Repository 方法和 JdbcTemplate 调用的子 Span 见 RepositoryObservationPostProcessor、JdbcTemplateObservationPostProcessor
+ */
+@Slf4j
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "log")
+    public SpanExporter loggingSpanExporter() {
+        log.info("链路追踪：Span 写入日志");
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "otlp")
+    public OtlpHttpSpanExporter otlpHttpSpanExporter(
+            @Value("${tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint,
+            @Value("${tracing.otlp.timeout-ms:10000}") long timeoutMillis) {
+        log.info("链路追踪：Span 通过 OTLP 发送到 {}", endpoint);
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(endpoint)
+                .setTimeout(Duration.ofMillis(timeoutMillis))
+                .build();
+    }
+}
@@ -1,8 +1,14 @@
 package com.points.common.util;
 
+import com.points.common.security.JwtPrincipal;
+import com.points.common.security.TokenRevocationList;
+import com.points.common.security.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,6 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * JWT工具类
@@ -22,15 +29,52 @@ public class JwtUtil {
     @Value("${jwt.secret:points-system-secret-key-for-jwt-token-generation-minimum-256-bits}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}") // 24小时
+    @Value("${jwt.expiration:1800000}") // 30分钟
     private Long expiration;
 
     @Value("${jwt.refresh-expiration:604800000}") // 7天
     private Long refreshExpiration;
 
-    private SecretKey getSigningKey() {
+    @Value("${jwt.cache.max-size:10000}") // 为0时不缓存
+    private int cacheMaxSize;
+
+    @Value("${jwt.cache.ttl-ms:300000}") // 5分钟
+    private long cacheTtlMillis;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int revocationExpectedEntries;
+
+    private static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    /**
+     * 签名密钥和解析器只创建一次，二者都是线程安全的
+     */
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * verifyToken 的结果缓存，未启用时为 null
+     */
+    private VerifiedTokenCache tokenCache;
+
+    /**
+     * 已吊销的Token，由 auth-service 或 TokenRevocationSync 写入
+     */
+    private TokenRevocationList revocationList;
+
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        tokenCache = cacheMaxSize > 0 ? new VerifiedTokenCache(cacheMaxSize, cacheTtlMillis) : null;
+        revocationList = new TokenRevocationList(revocationExpectedEntries);
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
 
     /**
@@ -61,7 +105,7 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("username", username);
-        claims.put("type", "refresh");
+        claims.put("type", TOKEN_TYPE_REFRESH);
         return createToken(claims, refreshExpiration);
     }
 
@@ -74,6 +118,7 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
@@ -84,11 +129,111 @@ public class JwtUtil {
      * 从Token中获取Claims
      */
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * 验证访问Token并返回身份信息（只验签和解析一次）
+     * 验证通过的结果按Token摘要缓存到 min(过期时间, jwt.cache.ttl-ms)，缓存有效期内不再验签；
+     * 吊销检查每次都执行（布隆过滤器，未吊销时几乎没有开销）
+     *
+     * @return 身份信息，Token无效、已过期、已吊销或为刷新Token时返回 null
+     */
+    public JwtPrincipal verifyToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        JwtPrincipal principal;
+        if (tokenCache == null) {
+            principal = parsePrincipal(token, false);
+        } else {
+            VerifiedTokenCache.TokenKey key = VerifiedTokenCache.keyOf(token);
+            principal = tokenCache.get(key);
+            if (principal == null) {
+                principal = parsePrincipal(token, false);
+                if (principal != null) {
+                    tokenCache.put(key, principal);
+                }
+            }
+        }
+        if (principal == null || isRevoked(principal)) {
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * 验证刷新Token（不缓存）
+     *
+     * @return 身份信息（不含角色），Token无效、已过期、已吊销或不是刷新Token时返回 null
+     */
+    public JwtPrincipal verifyRefreshToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        JwtPrincipal principal = parsePrincipal(token, true);
+        if (principal == null || isRevoked(principal)) {
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * 身份信息对应的Token是否已吊销（网关转发的内部身份同样需要检查）
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        return revocationList.isRevoked(principal.getTokenId());
+    }
+
+    /**
+     * 吊销Token（缓存命中时同样检查吊销状态，无需清除缓存）
+     */
+    public void revoke(String tokenId, long expiresAt) {
+        revocationList.revoke(tokenId, expiresAt);
+    }
+
+    public TokenRevocationList getRevocationList() {
+        return revocationList;
+    }
+
+    /**
+     * 访问Token有效期（毫秒）
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+
+    /**
+     * Token缓存，未启用时返回 null（命中率等指标见 TokenCacheMetrics）
+     */
+    public VerifiedTokenCache getTokenCache() {
+        return tokenCache;
+    }
+
+    private JwtPrincipal parsePrincipal(String token, boolean refresh) {
+        try {
+            Claims claims = getClaimsFromToken(token);
+            if (refresh != TOKEN_TYPE_REFRESH.equals(claims.get("type", String.class))) {
+                return null;
+            }
+            return toPrincipal(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt == null || expiresAt.before(new Date())) {
+            return null;
+        }
+        return new JwtPrincipal(
+                claims.get("userId", String.class),
+                claims.get("username", String.class),
+                claims.get("role", String.class),
+                expiresAt.getTime(),
+                claims.getId()
+        );
     }
 
     /**
@@ -0,0 +1,27 @@
+-- 为兑换记录的优惠券码添加唯一索引
+-- 执行此脚本前请先备份数据库
+
+USE points_system;
+
+-- 旧版本券码使用毫秒时间戳生成，可能存在重复，先检查重复数据
+-- SELECT coupon_code, COUNT(*) FROM exchange_records
+-- WHERE coupon_code IS NOT NULL GROUP BY coupon_code HAVING COUNT(*) > 1;
+
+-- 为重复的旧券码追加兑换记录ID后缀，保证唯一（保留每组中最早的一条）
+-- 重复券码通常在同一时刻生成，created_at（精确到秒）相同，按 created_at、id 排序编号，只保留编号为 1 的记录（需要 MySQL 8.0+）
+UPDATE exchange_records e
+JOIN (
+    SELECT id
+    FROM (
+        SELECT id,
+               ROW_NUMBER() OVER (PARTITION BY coupon_code ORDER BY created_at, id) AS rn
+        FROM exchange_records
+        WHERE coupon_code IS NOT NULL
+    ) ranked
+    WHERE ranked.rn > 1
+) d ON e.id = d.id
+SET e.coupon_code = CONCAT(e.coupon_code, '-', e.id);
+
+-- 添加唯一索引
+ALTER TABLE exchange_records
+ADD UNIQUE INDEX uk_coupon_code (coupon_code);
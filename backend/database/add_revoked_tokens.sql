@@ -0,0 +1,13 @@
+-- 添加已吊销Token表（支持退出登录和刷新Token）
+-- 执行此脚本前请先备份数据库
+
+USE points_system;
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY COMMENT 'Token唯一ID（jti）',
+    user_id VARCHAR(36) NOT NULL COMMENT '关联用户UUID',
+    expires_at DATETIME NOT NULL COMMENT 'Token过期时间，过期后记录可删除',
+    revoked_at DATETIME NOT NULL COMMENT '吊销时间',
+    INDEX idx_revoked_at (revoked_at),
+    INDEX idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -7,6 +7,7 @@ CREATE DATABASE IF NOT EXISTS points_system CHARACTER SET utf8mb4 COLLATE utf8mb
 USE points_system;
 
 -- 删除旧表（如果存在）
+DROP TABLE IF EXISTS revoked_tokens;
 DROP TABLE IF EXISTS product_usages;
 DROP TABLE IF EXISTS exchange_records;
 DROP TABLE IF EXISTS points_records;
@@ -84,6 +85,7 @@ CREATE TABLE IF NOT EXISTS exchange_records (
     coupon_code VARCHAR(100) COMMENT '优惠券码',
     created_at DATETIME NOT NULL,
     updated_at DATETIME,
+    UNIQUE KEY uk_coupon_code (coupon_code),
     INDEX idx_user_id (user_id),
     INDEX idx_product_id (product_id),
     INDEX idx_created_at (created_at)
@@ -104,6 +106,16 @@ CREATE TABLE IF NOT EXISTS product_usages (
     INDEX idx_product_id (product_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- 已吊销Token表（按 jti 记录，退出登录和刷新Token时写入）
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(36) PRIMARY KEY COMMENT 'Token唯一ID（jti）',
+    user_id VARCHAR(36) NOT NULL COMMENT '关联用户UUID',
+    expires_at DATETIME NOT NULL COMMENT 'Token过期时间，过期后记录可删除',
+    revoked_at DATETIME NOT NULL COMMENT '吊销时间',
+    INDEX idx_revoked_at (revoked_at),
+    INDEX idx_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- 插入测试用户（密码：123456，已加密）
 -- 使用新生成的BCrypt哈希，确保与当前Spring Security版本兼容
 INSERT INTO users (id, username, password, nickname, status, role, created_at) VALUES
@@ -0,0 +1,189 @@
+package com.points.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.points.common.util.JwtUtil;
+import com.points.points.PointsServiceApplication;
+import com.points.points.service.PointsService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 兑换流程端到端压测
+ *
+ * 1. 启动认证服务、产品服务替身（StubServices）
+ * 2. 在本进程内启动 points-service：H2 内存数据库（MySQL 兼容模式，JPA 建表），服务间调用指向替身，
+ *    短信限流放开（所有虚拟用户来自同一IP）
+ * 3. 为每个虚拟用户充值初始积分并签发 JWT，然后并发执行兑换流程（见 VirtualUser）
+ * 4. 预热后开始统计，结束时输出各接口的吞吐量、p50/p95/p99 耗时和错误分类，并写入 JSON 报告
+ *
+ * 数据库为 H2，结果用于比较同一环境下代码改动前后的差异，不代表 MySQL 部署的绝对性能；
+ * 积分明细随兑换次数增长，压测时间越长明细查询越慢
+ */
+public final class ExchangeLoadTest {
+
+    private ExchangeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        StubServices stubs = new StubServices(config.products, config.stubLatencyMillis);
+        stubs.start();
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PointsServiceApplication.class)
+                .run(pointsServiceArgs(stubs));
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Map<String, Object> report = run(config, context, "http://127.0.0.1:" + port, stubs);
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            File file = new File(config.reportPath);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            objectMapper.writeValue(file, report);
+            printSummary(report);
+            System.out.println("报告已写入 " + file.getAbsolutePath());
+        } finally {
+            context.close();
+            stubs.stop();
+        }
+    }
+
+    /**
+     * 命令行参数优先级最高，覆盖 application.yml 中的数据库、服务地址等配置
+     */
+    private static String[] pointsServiceArgs(StubServices stubs) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.profiles.active=loadtest",
+                "--spring.datasource.url=jdbc:h2:mem:points_system;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--auth-service.url=" + stubs.authUrl(),
+                "--product-service.url=" + stubs.productUrl(),
+                "--verification.mode=sms",
+                "--coupon.node-id=1",
+                "--auth.revocation.sync-url=",
+                "--sms.rate-limit.phone.capacity=1000000",
+                "--sms.rate-limit.phone.refill-interval-ms=1",
+                "--sms.rate-limit.ip.capacity=1000000",
+                "--sms.rate-limit.ip.refill-interval-ms=1",
+                "--logging.level.root=WARN",
+                "--logging.level.com.points=WARN"
+        };
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, ConfigurableApplicationContext context,
+                                           String baseUrl, StubServices stubs) throws InterruptedException {
+        PointsService pointsService = context.getBean(PointsService.class);
+        JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper objectMapper = new ObjectMapper();
+        String[] productIds = new String[config.products];
+        for (int i = 0; i < config.products; i++) {
+            productIds[i] = StubServices.productId(i);
+        }
+
+        Phase phase = new Phase();
+        List<VirtualUser> users = new ArrayList<>(config.users);
+        List<Thread> threads = new ArrayList<>(config.users);
+        for (int i = 0; i < config.users; i++) {
+            String userId = StubServices.userId(i);
+            pointsService.addPoints(userId, config.initialBalance, "压测初始积分", null);
+            String token = jwtUtil.generateToken(userId, "load-" + i);
+            VirtualUser user = new VirtualUser(httpClient, objectMapper, baseUrl, token, productIds, i, config,
+                    () -> phase.running, () -> phase.recording);
+            users.add(user);
+            Thread thread = new Thread(user, "virtual-user-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+
+        System.out.printf("压测开始：%d 个虚拟用户，预热 %ds，统计 %ds，指标 %s/actuator/prometheus%n",
+                config.users, config.warmupSeconds, config.durationSeconds, baseUrl);
+        threads.forEach(Thread::start);
+        TimeUnit.SECONDS.sleep(config.warmupSeconds);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        phase.recording = true;
+        TimeUnit.SECONDS.sleep(config.durationSeconds);
+        phase.recording = false;
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        phase.running = false;
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(60));
+        }
+
+        Map<String, OperationStats> merged = new LinkedHashMap<>();
+        long completed = 0;
+        long failed = 0;
+        for (VirtualUser user : users) {
+            user.getStats().forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, k -> new OperationStats()).merge(stats));
+            completed += user.getCompletedFlows();
+            failed += user.getFailedFlows();
+        }
+
+        Map<String, Object> flows = new LinkedHashMap<>();
+        flows.put("completed", completed);
+        flows.put("failed", failed);
+        flows.put("completedPerSecond", Math.round(completed / seconds * 1000) / 1000.0);
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        merged.forEach((operation, stats) -> operations.put(operation, stats.summarize(seconds)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", Math.round(seconds * 1000) / 1000.0);
+        report.put("config", config.toMap());
+        report.put("flows", flows);
+        report.put("operations", operations);
+        report.put("productUsageUpdates", stubs.getUsageUpdates());
+        return report;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printSummary(Map<String, Object> report) {
+        System.out.println();
+        System.out.printf("%-15s %10s %8s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50(ms)", "p95(ms)", "p99(ms)");
+        Map<String, Object> operations = (Map<String, Object>) report.get("operations");
+        operations.forEach((operation, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+            System.out.printf("%-15s %10s %8s %10s %10s %10s %10s%n", operation,
+                    summary.get("requests"), summary.get("errors"), summary.get("throughputPerSecond"),
+                    latency.get("p50"), latency.get("p95"), latency.get("p99"));
+            Map<String, Long> errors = (Map<String, Long>) summary.get("errorBreakdown");
+            errors.forEach((error, count) -> System.out.printf("    %s: %d%n", error, count));
+        });
+        System.out.println("flows: " + report.get("flows"));
+    }
+
+    /**
+     * 虚拟用户线程读取的压测阶段
+     */
+    private static final class Phase {
+
+        volatile boolean running = true;
+        volatile boolean recording;
+    }
+}
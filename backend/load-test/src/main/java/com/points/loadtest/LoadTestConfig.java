@@ -0,0 +1,62 @@
+package com.points.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 压测参数（系统属性 -Dload.xxx）
+ */
+public final class LoadTestConfig {
+
+    /**
+     * 并发虚拟用户数，每个用户一个线程，依次执行 发送验证码 → 兑换 → 查询余额 → 查询明细
+     */
+    final int users = Integer.getInteger("load.users", 20);
+
+    /**
+     * 统计时长（秒），不含预热
+     */
+    final int durationSeconds = Integer.getInteger("load.duration-seconds", 30);
+
+    /**
+     * 预热时长（秒），期间的请求不计入报告
+     */
+    final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+
+    /**
+     * 每轮流程结束后的等待时间（毫秒）
+     */
+    final long thinkTimeMillis = Long.getLong("load.think-time-ms", 0);
+
+    /**
+     * 认证/产品服务替身的响应延迟（毫秒），模拟服务间调用耗时
+     */
+    final long stubLatencyMillis = Long.getLong("load.stub-latency-ms", 0);
+
+    /**
+     * 每个用户的初始积分，保证压测期间不会因积分不足失败
+     */
+    final int initialBalance = Integer.getInteger("load.initial-balance", 100_000_000);
+
+    /**
+     * 替身产品数量，用户轮流兑换
+     */
+    final int products = Integer.getInteger("load.products", 10);
+
+    /**
+     * JSON 报告路径
+     */
+    final String reportPath = System.getProperty("load.report", "target/load-test-report.json");
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("users", users);
+        map.put("durationSeconds", durationSeconds);
+        map.put("warmupSeconds", warmupSeconds);
+        map.put("thinkTimeMs", thinkTimeMillis);
+        map.put("stubLatencyMs", stubLatencyMillis);
+        map.put("initialBalance", initialBalance);
+        map.put("products", products);
+        return map;
+    }
+}
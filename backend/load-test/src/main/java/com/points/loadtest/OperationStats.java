@@ -0,0 +1,81 @@
+package com.points.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 单个接口的请求耗时和错误统计
+ * 每个虚拟用户持有自己的实例（无需同步），压测结束后合并
+ */
+final class OperationStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<String, Long> errors = new HashMap<>();
+
+    /**
+     * @param error 失败原因，成功时为 null
+     */
+    void record(long latencyNanos, String error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error != null) {
+            errors.merge(error, 1L, Long::sum);
+        }
+    }
+
+    void merge(OperationStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        other.errors.forEach((error, n) -> errors.merge(error, n, Long::sum));
+    }
+
+    /**
+     * 汇总为报告中的一项；耗时统计包含失败的请求
+     */
+    Map<String, Object> summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        long errorCount = errors.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", count > 0 ? millis(Arrays.stream(sorted).sum() / count) : 0);
+        latency.put("p50", percentile(sorted, 0.50));
+        latency.put("p95", percentile(sorted, 0.95));
+        latency.put("p99", percentile(sorted, 0.99));
+        latency.put("max", count > 0 ? millis(sorted[count - 1]) : 0);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errorCount);
+        summary.put("errorRate", count > 0 ? round((double) errorCount / count) : 0);
+        summary.put("throughputPerSecond", round(count / seconds));
+        summary.put("latencyMs", latency);
+        summary.put("errorBreakdown", new TreeMap<>(errors));
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return millis(sorted[Math.max(0, index)]);
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,146 @@
+package com.points.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 认证服务和产品服务的进程内替身，只实现 points-service 兑换流程调用的接口
+ *
+ * 认证服务：GET /api/auth/user/{id}，手机号由用户序号生成（见 phoneOf）
+ * 产品服务：GET /api/products、GET /api/products/{id}、POST /api/products/{id}/usage；
+ *          库存充足，月度限制很大（兑换时仍会执行本月兑换次数查询）
+ */
+final class StubServices {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long latencyMillis;
+    private final List<Map<String, Object>> products = new ArrayList<>();
+    private final AtomicLong usageUpdates = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stub-service");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HttpServer authServer;
+    private HttpServer productServer;
+
+    StubServices(int productCount, long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        for (int i = 0; i < productCount; i++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", productId(i));
+            product.put("name", "压测商品" + i);
+            product.put("points", 100);
+            product.put("description", "压测商品" + i + "的描述");
+            product.put("stock", 1_000_000_000);
+            product.put("monthlyLimit", 1_000_000_000);
+            product.put("status", 1);
+            product.put("usedThisMonth", 0);
+            products.add(product);
+        }
+    }
+
+    static String userId(int index) {
+        return String.format("00000000-0000-0000-0000-%012d", index);
+    }
+
+    static String phoneOf(String userId) {
+        return String.format("139%08d", Long.parseLong(userId.substring(userId.lastIndexOf('-') + 1)));
+    }
+
+    static String productId(int index) {
+        return String.format("10000000-0000-0000-0000-%012d", index);
+    }
+
+    void start() throws IOException {
+        authServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        authServer.createContext("/api/auth/user/", this::handleUser);
+        authServer.setExecutor(executor);
+        authServer.start();
+
+        productServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        productServer.createContext("/api/products", this::handleProducts);
+        productServer.setExecutor(executor);
+        productServer.start();
+    }
+
+    void stop() {
+        authServer.stop(0);
+        productServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    String authUrl() {
+        return "http://127.0.0.1:" + authServer.getAddress().getPort();
+    }
+
+    String productUrl() {
+        return "http://127.0.0.1:" + productServer.getAddress().getPort();
+    }
+
+    long getUsageUpdates() {
+        return usageUpdates.get();
+    }
+
+    private void handleUser(HttpExchange exchange) throws IOException {
+        String userId = exchange.getRequestURI().getPath().substring("/api/auth/user/".length());
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("id", userId);
+        user.put("username", "load-" + userId.substring(userId.lastIndexOf('-') + 1));
+        user.put("nickname", "压测用户");
+        user.put("phone", phoneOf(userId));
+        respond(exchange, user);
+    }
+
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        // ["", "api", "products", {id}, "usage"]
+        if (segments.length == 3) {
+            respond(exchange, products);
+        } else if (segments.length == 5 && "usage".equals(segments[4])) {
+            usageUpdates.incrementAndGet();
+            respond(exchange, null);
+        } else {
+            Map<String, Object> product = products.stream()
+                    .filter(p -> p.get("id").equals(segments[3]))
+                    .findFirst()
+                    .orElse(null);
+            respond(exchange, product);
+        }
+    }
+
+    private void respond(HttpExchange exchange, Object data) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", data != null || exchange.getRequestMethod().equals("POST") ? 200 : 404);
+        body.put("message", data != null ? "操作成功" : "不存在");
+        body.put("data", data);
+        body.put("timestamp", System.currentTimeMillis());
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.points.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 虚拟用户：循环执行 发送验证码 → 兑换 → 查询余额 → 查询积分明细
+ * 发送验证码失败时跳过兑换，本轮流程记为失败
+ */
+final class VirtualUser implements Runnable {
+
+    static final String SEND_SMS_CODE = "send-sms-code";
+    static final String EXCHANGE = "exchange";
+    static final String BALANCE = "balance";
+    static final String RECORDS = "records";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String token;
+    private final String[] productIds;
+    private final LoadTestConfig config;
+    private final BooleanSupplier running;
+    private final BooleanSupplier recording;
+
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private long completedFlows;
+    private long failedFlows;
+    private int nextProduct;
+
+    VirtualUser(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String token,
+                String[] productIds, int index, LoadTestConfig config,
+                BooleanSupplier running, BooleanSupplier recording) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.productIds = productIds;
+        this.nextProduct = index % productIds.length;
+        this.config = config;
+        this.running = running;
+        this.recording = recording;
+        for (String operation : new String[]{SEND_SMS_CODE, EXCHANGE, BALANCE, RECORDS}) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running.getAsBoolean()) {
+            boolean success = runFlow();
+            if (recording.getAsBoolean()) {
+                if (success) {
+                    completedFlows++;
+                } else {
+                    failedFlows++;
+                }
+            }
+            if (config.thinkTimeMillis > 0) {
+                try {
+                    Thread.sleep(config.thinkTimeMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean runFlow() {
+        Result sms = call(SEND_SMS_CODE, post("/api/points/send-sms-code", "{}"));
+        if (sms.error != null) {
+            return false;
+        }
+        String productId = productIds[nextProduct];
+        nextProduct = (nextProduct + 1) % productIds.length;
+        String body = String.format("{\"productId\":\"%s\",\"quantity\":1,\"verificationCode\":\"%s\"}",
+                productId, sms.data.asText());
+        boolean success = call(EXCHANGE, post("/api/points/exchange", body)).error == null;
+        success &= call(BALANCE, get("/api/points/balance")).error == null;
+        success &= call(RECORDS, get("/api/points/records?type=all&timeRange=30days")).error == null;
+        return success;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json;charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json;charset=UTF-8");
+    }
+
+    /**
+     * 发送请求并按 ApiResponse 判断结果：HTTP 状态不是 200 或 code 不是 200 都算失败
+     */
+    private Result call(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        Result result;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                result = new Result(null, "HTTP " + response.statusCode());
+            } else {
+                JsonNode body = objectMapper.readTree(response.body());
+                int code = body.path("code").asInt();
+                result = code == 200
+                        ? new Result(body.path("data"), null)
+                        : new Result(null, code + " " + body.path("message").asText());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result = new Result(null, "interrupted");
+        } catch (Exception e) {
+            result = new Result(null, e.getClass().getSimpleName());
+        }
+        if (recording.getAsBoolean()) {
+            stats.get(operation).record(System.nanoTime() - start, result.error);
+        }
+        return result;
+    }
+
+    Map<String, OperationStats> getStats() {
+        return stats;
+    }
+
+    long getCompletedFlows() {
+        return completedFlows;
+    }
+
+    long getFailedFlows() {
+        return failedFlows;
+    }
+
+    private static final class Result {
+
+        final JsonNode data;
+        final String error;
+
+        Result(JsonNode data, String error) {
+            this.data = data;
+            this.error = error;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.points.points.controller;
 
+import com.points.common.annotation.CurrentUser;
+import com.points.common.annotation.RequireAdmin;
 import com.points.common.dto.ApiResponse;
 import com.points.common.dto.EarnPointsRequest;
+import com.points.common.dto.ExchangeEligibilityDTO;
 import com.points.common.dto.ExchangeRecordDTO;
 import com.points.common.dto.ExchangeRequest;
 import com.points.common.dto.PointsRecordDTO;
 import com.points.common.dto.SpendPointsRequest;
-import com.points.common.util.JwtUtil;
+import com.points.common.security.JwtPrincipal;
 import com.points.points.service.PointsService;
+import com.points.points.service.SmsRateLimitedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +23,8 @@ import java.util.List;
 /**
  * 积分控制器
  * 使用String类型ID（UUID）
+ * 认证由 common 模块的 AuthenticationFilter 和 AuthInterceptor 统一处理，
+ * 未登录或Token无效的请求不会进入带 @CurrentUser 参数的方法
  */
 @RestController
 @RequestMapping("/api/points")
@@ -24,30 +32,17 @@ import java.util.List;
 public class PointsController {
 
     private final PointsService pointsService;
-    private final JwtUtil jwtUtil;
 
     /**
      * 获取当前积分余额
      */
     @GetMapping("/balance")
-    public ApiResponse<Integer> getBalance(@RequestHeader("Authorization") String token) {
+    public ApiResponse<Integer> getBalance(@CurrentUser JwtPrincipal principal) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            Integer balance = pointsService.getBalance(userId);
+            Integer balance = pointsService.getBalance(principal.getUserId());
             return ApiResponse.success(balance);
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
         }
     }
 
@@ -56,54 +51,48 @@ public class PointsController {
      */
     @GetMapping(value = "/records", produces = "application/json;charset=UTF-8")
     public ApiResponse<List<PointsRecordDTO>> getRecords(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser JwtPrincipal principal,
             @RequestParam(required = false, defaultValue = "all") String type,
             @RequestParam(required = false, defaultValue = "30days") String timeRange) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            List<PointsRecordDTO> records = pointsService.getRecords(userId, type, timeRange);
+            List<PointsRecordDTO> records = pointsService.getRecords(principal.getUserId(), type, timeRange);
             return ApiResponse.success(records);
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
         }
     }
 
     /**
      * 发送短信验证码
+     * 同一IP或手机号发送过于频繁时返回 429，并通过 Retry-After 头告知重试等待秒数
      */
     @PostMapping("/send-sms-code")
-    public ApiResponse<String> sendSmsCode(@RequestHeader("Authorization") String token) {
+    public ApiResponse<String> sendSmsCode(@CurrentUser JwtPrincipal principal,
+                                           HttpServletRequest httpRequest,
+                                           HttpServletResponse httpResponse) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            String code = pointsService.sendSmsCode(userId);
+            // 经过网关时 remoteAddr 已由 X-Forwarded-For 还原为客户端IP（server.forward-headers-strategy）
+            String code = pointsService.sendSmsCode(principal.getUserId(), httpRequest.getRemoteAddr());
             // 开发环境返回验证码，生产环境不应返回
             return ApiResponse.success("验证码已发送", code);
+        } catch (SmsRateLimitedException e) {
+            httpResponse.setHeader("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            return ApiResponse.error(429, e.getMessage());
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询兑换资格（余额、每个上架产品的库存、月度限制和本月已兑换次数）
+     */
+    @GetMapping("/exchange/eligibility")
+    public ApiResponse<ExchangeEligibilityDTO> getExchangeEligibility(@CurrentUser JwtPrincipal principal) {
+        try {
+            ExchangeEligibilityDTO eligibility = pointsService.getExchangeEligibility(principal.getUserId());
+            return ApiResponse.success(eligibility);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -112,27 +101,13 @@ public class PointsController {
      */
     @PostMapping("/exchange")
     public ApiResponse<Void> exchange(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser JwtPrincipal principal,
             @Valid @RequestBody ExchangeRequest request) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            pointsService.exchange(userId, request);
+            pointsService.exchange(principal.getUserId(), request);
             return ApiResponse.success("兑换成功", null);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -142,31 +117,17 @@ public class PointsController {
      */
     @PostMapping("/earn")
     public ApiResponse<Integer> earnPoints(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser JwtPrincipal principal,
             @Valid @RequestBody EarnPointsRequest request) {
         try {
-            // 必须提供有效的 token
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 从 token 获取用户ID，忽略请求体中的 userId（防止越权）
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            
             // 验证积分数量
             if (request.getPoints() == null || request.getPoints() <= 0) {
                 return ApiResponse.error("积分数量必须大于0");
             }
-            
+
+            // 从 token 获取用户ID，忽略请求体中的 userId（防止越权）
             Integer balance = pointsService.earnPoints(
-                    userId,
+                    principal.getUserId(),
                     request.getPoints(),
                     request.getDescription(),
                     request.getDetails()
@@ -174,8 +135,6 @@ public class PointsController {
             return ApiResponse.success(balance);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -185,31 +144,17 @@ public class PointsController {
      */
     @PostMapping("/spend")
     public ApiResponse<Integer> spendPoints(
-            @RequestHeader("Authorization") String token,
+            @CurrentUser JwtPrincipal principal,
             @Valid @RequestBody SpendPointsRequest request) {
         try {
-            // 必须提供有效的 token
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 从 token 获取用户ID，忽略请求体中的 userId（防止越权）
-            String userId = jwtUtil.getUserIdFromToken(actualToken);
-            
             // 验证积分数量
             if (request.getPoints() == null || request.getPoints() <= 0) {
                 return ApiResponse.error("积分数量必须大于0");
             }
-            
+
+            // 从 token 获取用户ID，忽略请求体中的 userId（防止越权）
             Integer balance = pointsService.spendPoints(
-                    userId,
+                    principal.getUserId(),
                     request.getPoints(),
                     request.getDescription(),
                     request.getDetails()
@@ -217,8 +162,6 @@ public class PointsController {
             return ApiResponse.success(balance);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -226,34 +169,17 @@ public class PointsController {
      * 获取所有兑换记录（管理后台）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @GetMapping("/admin/exchanges")
     public ApiResponse<List<ExchangeRecordDTO>> getAllExchanges(
-            @RequestHeader("Authorization") String token,
             @RequestParam(required = false) String userId,
             @RequestParam(required = false) String productId,
             @RequestParam(required = false) String status) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限
-            String role = jwtUtil.getRoleFromToken(actualToken);
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
             List<ExchangeRecordDTO> records = pointsService.getAllExchangeRecords(userId, productId, status);
             return ApiResponse.success(records);
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
         }
     }
 }
@@ -13,7 +13,8 @@ import java.util.UUID;
  * 使用UUID作为主键，提高安全性和分布式支持
  */
 @Entity
-@Table(name = "exchange_records")
+@Table(name = "exchange_records",
+       indexes = @Index(name = "uk_coupon_code", columnList = "coupon_code", unique = true))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
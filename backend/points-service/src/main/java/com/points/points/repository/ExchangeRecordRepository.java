@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ExchangeRecordRepository extends JpaRepository<ExchangeRecord, String> {
@@ -22,8 +23,24 @@ public interface ExchangeRecordRepository extends JpaRepository<ExchangeRecord,
                                    @Param("productId") String productId,
                                    @Param("date") LocalDateTime date);
     
+    /**
+     * 统计用户在时间区间内各产品的兑换次数（返回 productId, count）
+     */
+    @Query("SELECT e.productId, COUNT(e) FROM ExchangeRecord e " +
+           "WHERE e.userId = :userId " +
+           "AND e.status = 'completed' " +
+           "AND e.createdAt >= :start " +
+           "AND e.createdAt < :end " +
+           "GROUP BY e.productId")
+    List<Object[]> countExchangesByProduct(@Param("userId") String userId,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end);
+    
     List<ExchangeRecord> findByUserIdOrderByCreatedAtDesc(String userId);
     
+    // 券码核销查询（coupon_code 唯一索引）
+    Optional<ExchangeRecord> findByCouponCode(String couponCode);
+    
     // 管理后台查询
     List<ExchangeRecord> findAllByOrderByCreatedAtDesc();
     
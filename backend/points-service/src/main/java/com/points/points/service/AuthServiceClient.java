@@ -3,6 +3,7 @@ package com.points.points.service;
 import com.points.common.dto.ApiResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -18,7 +19,10 @@ import org.springframework.web.client.RestTemplate;
 public class AuthServiceClient {
 
     private final RestTemplate restTemplate;
-    private static final String AUTH_SERVICE_URL = "http://localhost:8081";
+    private final PointsMetrics pointsMetrics;
+
+    @Value("${auth-service.url:http://localhost:8081}")
+    private String authServiceUrl;
 
     /**
      * 获取用户信息
@@ -28,13 +32,14 @@ public class AuthServiceClient {
      */
     public UserInfo getUserInfo(String userId) {
         try {
-            String url = AUTH_SERVICE_URL + "/api/auth/user/" + userId;
-            ResponseEntity<ApiResponse<UserInfo>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<ApiResponse<UserInfo>>() {}
-            );
+            String url = authServiceUrl + "/api/auth/user/" + userId;
+            ResponseEntity<ApiResponse<UserInfo>> response = pointsMetrics.clientCall("auth", "get_user",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            null,
+                            new ParameterizedTypeReference<ApiResponse<UserInfo>>() {}
+                    ));
             ApiResponse<UserInfo> apiResponse = response.getBody();
             if (apiResponse != null && apiResponse.getCode() == 200 && apiResponse.getData() != null) {
                 return apiResponse.getData();
@@ -0,0 +1,159 @@
+package com.points.points.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 优惠券码生成器
+ *
+ * 券码由 时间戳(41位) + 节点ID(10位) + 序列号(12位) 组成，多实例之间不重复：
+ * 1. 时间戳和序列号保存在一个 AtomicLong 中，通过 CAS 推进，无锁
+ * 2. 同一毫秒内序列号用完或时钟回拨时，借用后续毫秒继续递增，保证单调不重复
+ * 3. 编码为 Crockford Base32（13位）+ 1位 Luhn mod 32 校验码，前缀 CPN
+ *
+ * 节点ID通过 coupon.node-id 配置（0-1023），多实例部署时每个实例必须不同；
+ * 未配置时启动失败；dev、loadtest 环境可以配置为 -1，根据主机名和进程号推导
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponCodeGenerator {
+
+    public static final String PREFIX = "CPN";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BASE = ALPHABET.length;
+    private static final int BODY_LENGTH = 13;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * 自定义纪元：2024-01-01 00:00:00 UTC
+     */
+    private static final long EPOCH = 1704067200000L;
+
+    @Value("${coupon.node-id}")
+    private long configuredNodeId;
+
+    private long nodeId;
+
+    private final Environment environment;
+
+    /**
+     * 高位为时间戳（相对纪元的毫秒数），低 SEQUENCE_BITS 位为序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (configuredNodeId >= 0) {
+            if (configuredNodeId > MAX_NODE_ID) {
+                throw new IllegalStateException("coupon.node-id 必须在 0-" + MAX_NODE_ID + " 之间");
+            }
+            nodeId = configuredNodeId;
+        } else {
+            if (!environment.acceptsProfiles(Profiles.of("dev", "loadtest"))) {
+                throw new IllegalStateException("coupon.node-id 必须配置为 0-" + MAX_NODE_ID + "，只有 dev、loadtest 环境可以自动推导");
+            }
+            nodeId = deriveNodeId();
+            log.warn("coupon.node-id 为 -1，使用推导的节点ID {}，多实例部署时请为每个实例配置不同的节点ID", nodeId);
+        }
+    }
+
+    /**
+     * 生成券码
+     */
+    public String generate() {
+        long next;
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long currentTime = current >>> SEQUENCE_BITS;
+            if (now > currentTime) {
+                next = now << SEQUENCE_BITS;
+            } else {
+                // 同一毫秒、序列号溢出或时钟回拨：直接递增，溢出的序列号进位到下一毫秒
+                next = current + 1;
+            }
+            if (state.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        long time = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        long value = (time << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        return PREFIX + encode(value);
+    }
+
+    /**
+     * 校验券码格式和校验位（不查询数据库）
+     */
+    public static boolean isValid(String code) {
+        if (code == null || code.length() != PREFIX.length() + BODY_LENGTH + 1 || !code.startsWith(PREFIX)) {
+            return false;
+        }
+        String body = code.substring(PREFIX.length(), code.length() - 1);
+        for (int i = 0; i < body.length(); i++) {
+            if (indexOf(body.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return checkChar(body) == code.charAt(code.length() - 1);
+    }
+
+    private static String encode(long value) {
+        char[] body = new char[BODY_LENGTH];
+        for (int i = BODY_LENGTH - 1; i >= 0; i--) {
+            body[i] = ALPHABET[(int) (value & (BASE - 1))];
+            value >>>= 5;
+        }
+        String encoded = new String(body);
+        return encoded + checkChar(encoded);
+    }
+
+    /**
+     * Luhn mod N 校验码，可以发现单个字符错误和大部分相邻字符交换
+     */
+    private static char checkChar(String body) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = body.length() - 1; i >= 0; i--) {
+            int addend = factor * indexOf(body.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        int check = (BASE - sum % BASE) % BASE;
+        return ALPHABET[check];
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long deriveNodeId() {
+        String identity;
+        try {
+            identity = InetAddress.getLocalHost().getHostName() + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        } catch (Exception e) {
+            identity = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return (identity.hashCode() & Integer.MAX_VALUE) % (MAX_NODE_ID + 1);
+    }
+}
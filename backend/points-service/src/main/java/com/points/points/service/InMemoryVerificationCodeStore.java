@@ -0,0 +1,162 @@
+package com.points.points.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 验证码存储（内存，verification.store.type=memory，默认）
+ *
+ * 只在本实例内有效，多实例部署请使用 RedisVerificationCodeStore；
+ * 不依赖任何外部组件，也作为本地开发和测试时的替身
+ *
+ * 1. 所有验证码有效期相同，写入顺序即过期顺序，用一个 FIFO 队列记录写入顺序
+ * 2. 后台线程定期从队头清理过期验证码，未验证的验证码不会一直占用内存
+ * 3. 容量有硬上限：写入时超过上限则从队头淘汰最早（最接近过期）的验证码
+ * 4. 同一手机号重复发送会在队列中留下旧记录，清理时发现已被覆盖则直接丢弃；
+ *    队列长度同样有上限，保证短信活动期间内存不增长
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "verification.store.type", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InMemoryVerificationCodeStore implements VerificationCodeStore {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${verification.store.max-size:100000}")
+    private int maxSize;
+
+    @Value("${verification.store.sweep-interval-ms:5000}")
+    private long sweepIntervalMillis;
+
+    private final Map<String, CodeEntry> codes = new ConcurrentHashMap<>();
+    private final Queue<CodeEntry> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger writeOrderSize = new AtomicInteger();
+
+    private ScheduledExecutorService sweeper;
+    private Counter expiredEvictions;
+    private Counter capacityEvictions;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("verification.codes.size", codes, Map::size)
+                .description("内存中的验证码数量")
+                .register(meterRegistry);
+        expiredEvictions = Counter.builder("verification.codes.evictions")
+                .description("被清理的验证码数量")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        capacityEvictions = Counter.builder("verification.codes.evictions")
+                .description("被清理的验证码数量")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "verification-code-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepExpired, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public void save(String phone, String code, long ttlMillis) {
+        CodeEntry entry = new CodeEntry(phone, code, System.currentTimeMillis() + ttlMillis);
+        codes.put(phone, entry);
+        writeOrder.offer(entry);
+        writeOrderSize.incrementAndGet();
+        while (codes.size() > maxSize || writeOrderSize.get() > maxSize * 2) {
+            if (!evictHead(capacityEvictions)) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public ConsumeResult consume(String phone, String code) {
+        CodeEntry entry = codes.get(phone);
+        if (entry == null) {
+            return ConsumeResult.NOT_FOUND;
+        }
+        // 过期的验证码可能尚未被后台线程清理
+        if (System.currentTimeMillis() > entry.expireTime) {
+            codes.remove(phone, entry);
+            return ConsumeResult.EXPIRED;
+        }
+        if (!entry.code.equals(code)) {
+            return ConsumeResult.MISMATCH;
+        }
+        // 仅当当前值仍为 entry 时删除，并发验证同一验证码时只有删除成功的请求通过
+        return codes.remove(phone, entry) ? ConsumeResult.MATCHED : ConsumeResult.NOT_FOUND;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * 从队头清理所有已过期的验证码
+     */
+    void sweepExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            CodeEntry head;
+            while ((head = writeOrder.peek()) != null && head.expireTime <= now) {
+                if (!evictHead(expiredEvictions)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("清理过期验证码异常: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 移除队头记录；若它仍是该手机号的当前验证码则一并删除并计数
+     */
+    private boolean evictHead(Counter counter) {
+        CodeEntry head = writeOrder.poll();
+        if (head == null) {
+            return false;
+        }
+        writeOrderSize.decrementAndGet();
+        if (codes.remove(head.phone, head)) {
+            counter.increment();
+        }
+        return true;
+    }
+
+    private static final class CodeEntry {
+        final String phone;
+        final String code;
+        final long expireTime;
+
+        CodeEntry(String phone, String code, long expireTime) {
+            this.phone = phone;
+            this.code = code;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.points.points.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本地短信提供商（sms.provider=log，默认）
+ *
+ * 不发送真实短信，只把验证码写入日志，用于开发和测试；
+ * 可配置模拟延迟和失败率，用来观察发送队列的积压和重试
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sms.provider", havingValue = "log", matchIfMissing = true)
+public class LoggingSmsProvider implements SmsProvider {
+
+    @Value("${sms.log.batch-size:50}")
+    private int batchSize;
+
+    @Value("${sms.log.latency-ms:0}")
+    private long latencyMillis;
+
+    @Value("${sms.log.failure-rate:0}")
+    private double failureRate;
+
+    @Override
+    public int getMaxBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public List<SmsMessage> send(List<SmsMessage> messages) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("短信发送被中断");
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("模拟短信发送失败");
+        }
+        for (SmsMessage message : messages) {
+            log.info("发送短信验证码到手机号: {}, 验证码: {} (有效期: {}秒)",
+                    message.getPhone(), message.getCode(), message.getExpirationSeconds());
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,64 @@
+package com.points.points.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 积分服务耗时指标（均发布直方图，Prometheus 可用 histogram_quantile 计算分位数）
+ *
+ * points.operation：兑换、获取、消费积分和查询明细的耗时，不含方法返回后的事务提交
+ * points.exchange.phase：兑换各阶段耗时（auth_user、sms_verify、product、monthly_count、write、product_usage）
+ * points.client.requests：调用认证服务、产品服务的耗时
+ *
+ * 每个计时器都带 outcome（success/failure）和 exception（异常类名，成功时为 none）标签，
+ * 计时器的 count 即各结果的次数；业务校验失败抛出的是 RuntimeException，数据库、网络异常保留原异常类名
+ */
+@Component
+@RequiredArgsConstructor
+public class PointsMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T operation(String operation, Supplier<T> call) {
+        return record(Timer.builder("points.operation").tag("operation", operation), call);
+    }
+
+    public <T> T exchangePhase(String phase, Supplier<T> call) {
+        return record(Timer.builder("points.exchange.phase").tag("phase", phase), call);
+    }
+
+    public void exchangePhase(String phase, Runnable call) {
+        exchangePhase(phase, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T clientCall(String service, String operation, Supplier<T> call) {
+        return record(Timer.builder("points.client.requests")
+                .tag("service", service)
+                .tag("operation", operation), call);
+    }
+
+    private <T> T record(Timer.Builder builder, Supplier<T> call) {
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            builder.tag("outcome", "none".equals(exception) ? "success" : "failure")
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
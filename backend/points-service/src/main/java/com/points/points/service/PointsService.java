@@ -1,7 +1,9 @@
 package com.points.points.service;
 
+import com.points.common.dto.ExchangeEligibilityDTO;
 import com.points.common.dto.ExchangeRequest;
 import com.points.common.dto.PointsRecordDTO;
+import com.points.common.dto.ProductDTO;
 import com.points.common.util.JwtUtil;
 import com.points.points.config.VerificationConfig;
 import com.points.points.entity.ExchangeRecord;
@@ -19,7 +21,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +45,11 @@ public class PointsService {
     private final ProductServiceClient productServiceClient;
     private final VerificationConfig verificationConfig;
     private final SmsService smsService;
+    private final SmsRateLimiter smsRateLimiter;
     private final AuthServiceClient authServiceClient;
     private final JdbcTemplate jdbcTemplate;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final PointsMetrics pointsMetrics;
 
     /**
      * 获取用户积分余额
@@ -66,6 +73,10 @@ public class PointsService {
      */
     @Transactional(readOnly = true)
     public List<PointsRecordDTO> getRecords(String userId, String type, String timeRange) {
+        return pointsMetrics.operation("records", () -> doGetRecords(userId, type, timeRange));
+    }
+
+    private List<PointsRecordDTO> doGetRecords(String userId, String type, String timeRange) {
         LocalDateTime startTime = calculateStartTime(timeRange);
         String recordType = convertType(type);
         
@@ -83,13 +94,84 @@ public class PointsService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 查询用户对所有上架产品的兑换资格
+     * 一次读取余额、一次汇总本月兑换次数，产品目录使用缓存
+     */
+    @Transactional(readOnly = true)
+    public ExchangeEligibilityDTO getExchangeEligibility(String userId) {
+        int balance = accountRepository.findByUserId(userId)
+                .map(PointsAccount::getBalance)
+                .orElse(0);
+
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Map<String, Integer> monthlyCounts = new HashMap<>();
+        for (Object[] row : exchangeRecordRepository.countExchangesByProduct(
+                userId, monthStart, monthStart.plusMonths(1))) {
+            monthlyCounts.put((String) row[0], ((Number) row[1]).intValue());
+        }
+
+        List<ExchangeEligibilityDTO.Item> items = new ArrayList<>();
+        for (ProductDTO product : productServiceClient.getActiveProducts()) {
+            items.add(evaluateEligibility(product, balance, monthlyCounts.getOrDefault(product.getId(), 0)));
+        }
+        return new ExchangeEligibilityDTO(balance, items);
+    }
+
+    private ExchangeEligibilityDTO.Item evaluateEligibility(ProductDTO product, int balance, int usedThisMonth) {
+        int stock = product.getStock() != null ? product.getStock() : 0;
+        int monthlyLimit = product.getMonthlyLimit() != null ? product.getMonthlyLimit() : 0;
+        int points = product.getPoints() != null ? product.getPoints() : 0;
+
+        // 与 exchange 中的校验顺序保持一致：月度限制 -> 库存 -> 积分
+        Integer remainingThisMonth = monthlyLimit > 0 ? Math.max(0, monthlyLimit - usedThisMonth) : null;
+        int affordable = points > 0 ? balance / points : 0;
+        int maxQuantity = Math.min(stock, affordable);
+        if (remainingThisMonth != null) {
+            maxQuantity = Math.min(maxQuantity, remainingThisMonth);
+        }
+
+        String reason = null;
+        if (points <= 0) {
+            reason = "产品积分配置错误";
+        } else if (remainingThisMonth != null && remainingThisMonth == 0) {
+            reason = "本月兑换次数已用完";
+        } else if (stock <= 0) {
+            reason = "库存不足";
+        } else if (affordable == 0) {
+            reason = "积分不足";
+        }
+
+        return new ExchangeEligibilityDTO.Item(
+                product.getId(),
+                product.getName(),
+                points,
+                stock,
+                monthlyLimit,
+                usedThisMonth,
+                remainingThisMonth,
+                Math.max(0, maxQuantity),
+                reason == null,
+                reason
+        );
+    }
+
     /**
      * 兑换产品
+     * 各阶段耗时见 PointsMetrics（points.exchange.phase）
      */
     @Transactional
     public void exchange(String userId, ExchangeRequest request) {
+        pointsMetrics.operation("exchange", () -> {
+            doExchange(userId, request);
+            return null;
+        });
+    }
+
+    private void doExchange(String userId, ExchangeRequest request) {
         // 获取用户信息（包括手机号）
-        AuthServiceClient.UserInfo userInfo = authServiceClient.getUserInfo(userId);
+        AuthServiceClient.UserInfo userInfo = pointsMetrics.exchangePhase("auth_user",
+                () -> authServiceClient.getUserInfo(userId));
         if (userInfo == null) {
             throw new RuntimeException("用户不存在");
         }
@@ -103,7 +185,8 @@ public class PointsService {
         String phone = userInfo.getPhone() != null ? userInfo.getPhone().trim() : null;
         String verificationCode = request.getVerificationCode() != null ? request.getVerificationCode().trim() : null;
         
-        SmsService.VerificationResult verificationResult = smsService.verifyCode(phone, verificationCode);
+        SmsService.VerificationResult verificationResult = pointsMetrics.exchangePhase("sms_verify",
+                () -> smsService.verifyCode(phone, verificationCode));
         if (!verificationResult.isSuccess()) {
             log.warn("用户 {} 手机号 {} 验证码验证失败，输入的验证码: {}，错误信息: {}", 
                     userId, phone, verificationCode, verificationResult.getErrorMessage());
@@ -111,7 +194,8 @@ public class PointsService {
         }
 
         // 获取产品信息
-        var product = productServiceClient.getProduct(request.getProductId());
+        var product = pointsMetrics.exchangePhase("product",
+                () -> productServiceClient.getProduct(request.getProductId()));
         if (product == null) {
             throw new RuntimeException("产品不存在");
         }
@@ -120,8 +204,8 @@ public class PointsService {
         LocalDateTime now = LocalDateTime.now();
         Integer monthlyLimit = product.getMonthlyLimit();
         if (monthlyLimit != null && monthlyLimit > 0) {
-            Integer monthlyCount = exchangeRecordRepository.countMonthlyExchanges(
-                    userId, request.getProductId(), now);
+            Integer monthlyCount = pointsMetrics.exchangePhase("monthly_count",
+                    () -> exchangeRecordRepository.countMonthlyExchanges(userId, request.getProductId(), now));
             if (monthlyCount + request.getQuantity() > monthlyLimit) {
                 throw new RuntimeException(String.format("超过月度兑换限制，本月已兑换 %d 次，限制 %d 次，剩余 %d 次", 
                     monthlyCount, monthlyLimit, Math.max(0, monthlyLimit - monthlyCount)));
@@ -142,6 +226,22 @@ public class PointsService {
         }
         Integer requiredPoints = productPoints * request.getQuantity();
 
+        // 扣除积分，写入积分记录和兑换记录
+        pointsMetrics.exchangePhase("write",
+                () -> saveExchange(userId, request, product.getName(), requiredPoints));
+
+        // 通知产品服务更新库存和使用次数
+        pointsMetrics.exchangePhase("product_usage",
+                () -> productServiceClient.updateProductUsage(request.getProductId(), request.getQuantity(), userId));
+        
+        log.info("用户 {} 成功兑换产品 {}，数量 {}，消耗积分 {}", 
+                userId, product.getName(), request.getQuantity(), requiredPoints);
+    }
+
+    /**
+     * 兑换的数据库写入：扣除积分、创建积分记录和兑换记录
+     */
+    private void saveExchange(String userId, ExchangeRequest request, String productName, Integer requiredPoints) {
         // 获取或创建积分账户
         PointsAccount account = accountRepository.findByUserId(userId)
                 .orElseGet(() -> {
@@ -168,10 +268,10 @@ public class PointsService {
         record.setUserId(userId);
         record.setType("spend");
         record.setPoints(-requiredPoints);
-        record.setDescription("兑换" + product.getName());
+        record.setDescription("兑换" + productName);
         record.setBalance(account.getBalance());
         record.setDetails(String.format("兑换了价值%d积分的%s，数量：%d", 
-                requiredPoints, product.getName(), request.getQuantity()));
+                requiredPoints, productName, request.getQuantity()));
         record.setRelatedType("exchange");
         recordRepository.save(record);
 
@@ -184,12 +284,6 @@ public class PointsService {
         exchangeRecord.setStatus("completed");
         exchangeRecord.setCouponCode(generateCouponCode());
         exchangeRecordRepository.save(exchangeRecord);
-
-        // 通知产品服务更新库存和使用次数
-        productServiceClient.updateProductUsage(request.getProductId(), request.getQuantity(), userId);
-        
-        log.info("用户 {} 成功兑换产品 {}，数量 {}，消耗积分 {}", 
-                userId, product.getName(), request.getQuantity(), requiredPoints);
     }
 
     /**
@@ -231,6 +325,10 @@ public class PointsService {
      */
     @Transactional
     public Integer earnPoints(String userId, Integer points, String description, String details) {
+        return pointsMetrics.operation("earn", () -> doEarnPoints(userId, points, description, details));
+    }
+
+    private Integer doEarnPoints(String userId, Integer points, String description, String details) {
         PointsAccount account = accountRepository.findByUserId(userId)
                 .orElseGet(() -> {
                     PointsAccount newAccount = new PointsAccount();
@@ -270,6 +368,10 @@ public class PointsService {
      */
     @Transactional
     public Integer spendPoints(String userId, Integer points, String description, String details) {
+        return pointsMetrics.operation("spend", () -> doSpendPoints(userId, points, description, details));
+    }
+
+    private Integer doSpendPoints(String userId, Integer points, String description, String details) {
         PointsAccount account = accountRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("用户积分账户不存在"));
 
@@ -327,14 +429,18 @@ public class PointsService {
     }
 
     private String generateCouponCode() {
-        return "CPN" + System.currentTimeMillis();
+        return couponCodeGenerator.generate();
     }
 
     /**
      * 发送短信验证码
+     * 不访问数据库，不开启事务；IP限流在查询用户信息之前检查
+     *
+     * @throws SmsRateLimitedException 发送过于频繁
      */
-    @Transactional(readOnly = true)
-    public String sendSmsCode(String userId) {
+    public String sendSmsCode(String userId, String clientIp) {
+        smsRateLimiter.acquireForIp(clientIp);
+
         // 获取用户信息（包括手机号）
         AuthServiceClient.UserInfo userInfo = authServiceClient.getUserInfo(userId);
         if (userInfo == null) {
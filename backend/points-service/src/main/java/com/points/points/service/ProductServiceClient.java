@@ -3,32 +3,50 @@ package com.points.points.service;
 import com.points.common.dto.ApiResponse;
 import com.points.common.dto.ProductDTO;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 /**
  * 产品服务客户端（Feign或RestTemplate）
  * 使用String类型ID（UUID）
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductServiceClient {
 
     private final RestTemplate restTemplate;
-    private static final String PRODUCT_SERVICE_URL = "http://localhost:8083";
+    private final PointsMetrics pointsMetrics;
+    private static final String CATALOG_FIELDS = "id,name,points,stock,monthlyLimit,status";
+
+    @Value("${product-service.url:http://localhost:8083}")
+    private String productServiceUrl;
+
+    /**
+     * 上架产品目录缓存有效期（毫秒）
+     */
+    @Value("${product-service.catalog-cache-ttl:5000}")
+    private long catalogCacheTtl;
+
+    private volatile CatalogCache catalogCache;
 
     public ProductDTO getProduct(String productId) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/api/products/" + productId;
-            ResponseEntity<ApiResponse<ProductDTO>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<ApiResponse<ProductDTO>>() {}
-            );
+            String url = productServiceUrl + "/api/products/" + productId;
+            ResponseEntity<ApiResponse<ProductDTO>> response = pointsMetrics.clientCall("product", "get_product",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            null,
+                            new ParameterizedTypeReference<ApiResponse<ProductDTO>>() {}
+                    ));
             ApiResponse<ProductDTO> apiResponse = response.getBody();
             if (apiResponse != null && apiResponse.getCode() == 200 && apiResponse.getData() != null) {
                 return apiResponse.getData();
@@ -39,13 +57,51 @@ public class ProductServiceClient {
         }
     }
 
+    /**
+     * 获取上架产品目录（不含描述等大字段）
+     * 结果在本地缓存 catalogCacheTtl 毫秒，过期后由第一个请求刷新
+     */
+    public List<ProductDTO> getActiveProducts() {
+        CatalogCache cache = catalogCache;
+        long now = System.currentTimeMillis();
+        if (cache != null && now < cache.expireTime) {
+            return cache.products;
+        }
+        try {
+            String url = productServiceUrl + "/api/products?fields=" + CATALOG_FIELDS;
+            ResponseEntity<ApiResponse<List<ProductDTO>>> response = pointsMetrics.clientCall("product",
+                    "list_products",
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.GET,
+                            null,
+                            new ParameterizedTypeReference<ApiResponse<List<ProductDTO>>>() {}
+                    ));
+            ApiResponse<List<ProductDTO>> apiResponse = response.getBody();
+            if (apiResponse != null && apiResponse.getCode() == 200 && apiResponse.getData() != null) {
+                List<ProductDTO> products = List.copyOf(apiResponse.getData());
+                catalogCache = new CatalogCache(products, now + catalogCacheTtl);
+                return products;
+            }
+            throw new RuntimeException("获取产品列表失败: 数据为空");
+        } catch (Exception e) {
+            if (cache != null) {
+                // 产品服务不可用时继续使用过期的目录
+                log.warn("刷新产品目录失败，使用缓存数据: {}", e.getMessage());
+                return cache.products;
+            }
+            throw new RuntimeException("获取产品列表失败: " + e.getMessage());
+        }
+    }
+
     public void updateProductUsage(String productId, Integer quantity, String userId) {
         try {
-            String url = PRODUCT_SERVICE_URL + "/api/products/" + productId + "/usage";
-            restTemplate.postForObject(url, new UsageRequest(quantity, userId), Void.class);
+            String url = productServiceUrl + "/api/products/" + productId + "/usage";
+            pointsMetrics.clientCall("product", "update_usage",
+                    () -> restTemplate.postForObject(url, new UsageRequest(quantity, userId), Void.class));
         } catch (Exception e) {
             // 记录日志，但不影响主流程
-            System.err.println("更新产品使用次数失败: " + e.getMessage());
+            log.warn("更新产品使用次数失败: {}", e.getMessage());
         }
     }
 
@@ -63,4 +119,14 @@ public class ProductServiceClient {
         public String getUserId() { return userId; }
         public void setUserId(String userId) { this.userId = userId; }
     }
+
+    private static class CatalogCache {
+        final List<ProductDTO> products;
+        final long expireTime;
+
+        CatalogCache(List<ProductDTO> products, long expireTime) {
+            this.products = products;
+            this.expireTime = expireTime;
+        }
+    }
 }
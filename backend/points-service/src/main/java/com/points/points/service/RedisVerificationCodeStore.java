@@ -0,0 +1,66 @@
+package com.points.points.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 验证码存储（Redis，verification.store.type=redis）
+ *
+ * 1. 验证码以 points:sms-code:{phone} 保存，过期由 Redis TTL 负责，不需要后台清理
+ * 2. 校验通过 Lua 脚本在 Redis 中原子地比较并删除，多实例并发验证同一验证码时只有一个请求通过
+ * 3. Redis 不可用时发送和验证都失败（不回退到本地内存，否则其他实例无法验证）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "verification.store.type", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisVerificationCodeStore implements VerificationCodeStore {
+
+    private static final String KEY_PREFIX = "points:sms-code:";
+
+    /**
+     * 返回 0：不存在；1：匹配并已删除；2：不匹配
+     */
+    private static final RedisScript<Long> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "local stored = redis.call('GET', KEYS[1])\n"
+                    + "if not stored then return 0 end\n"
+                    + "if stored == ARGV[1] then redis.call('DEL', KEYS[1]) return 1 end\n"
+                    + "return 2",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void save(String phone, String code, long ttlMillis) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + phone, code, Duration.ofMillis(ttlMillis));
+        } catch (RuntimeException e) {
+            log.error("保存验证码到Redis失败: {}", e.getMessage());
+            throw new RuntimeException("验证码服务暂时不可用，请稍后重试");
+        }
+    }
+
+    @Override
+    public ConsumeResult consume(String phone, String code) {
+        Long result;
+        try {
+            result = redisTemplate.execute(CONSUME_SCRIPT, List.of(KEY_PREFIX + phone), code);
+        } catch (RuntimeException e) {
+            log.error("从Redis校验验证码失败: {}", e.getMessage());
+            throw new RuntimeException("验证码服务暂时不可用，请稍后重试");
+        }
+        if (result == null || result == 0) {
+            // 过期的验证码已被 Redis 删除，无法与不存在区分
+            return ConsumeResult.NOT_FOUND;
+        }
+        return result == 1 ? ConsumeResult.MATCHED : ConsumeResult.MISMATCH;
+    }
+}
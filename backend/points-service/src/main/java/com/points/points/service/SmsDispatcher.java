@@ -0,0 +1,186 @@
+package com.points.points.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 短信异步发送
+ *
+ * 1. 请求线程只把短信放入有界队列，队列满时立即拒绝，不等待
+ * 2. 固定数量的工作线程从队列取出短信，按提供商支持的批量大小合并提交
+ * 3. 发送失败的短信按指数退避重新入队，超过最大次数或验证码已过期则放弃
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmsDispatcher {
+
+    private final SmsProvider provider;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sms.dispatch.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${sms.dispatch.workers:2}")
+    private int workers;
+
+    @Value("${sms.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${sms.dispatch.retry-backoff-ms:500}")
+    private long retryBackoffMillis;
+
+    @Value("${sms.dispatch.max-retry-backoff-ms:10000}")
+    private long maxRetryBackoffMillis;
+
+    private BlockingQueue<SmsMessage> queue;
+    private List<Thread> workerThreads;
+    private ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private Counter sent;
+    private Counter rejected;
+    private Counter retried;
+    private Counter failed;
+    private Counter expired;
+    private Timer batchTimer;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sent = Counter.builder("sms.dispatch.messages").tag("result", "sent").register(meterRegistry);
+        rejected = Counter.builder("sms.dispatch.messages").tag("result", "rejected").register(meterRegistry);
+        retried = Counter.builder("sms.dispatch.messages").tag("result", "retried").register(meterRegistry);
+        failed = Counter.builder("sms.dispatch.messages").tag("result", "failed").register(meterRegistry);
+        expired = Counter.builder("sms.dispatch.messages").tag("result", "expired").register(meterRegistry);
+        batchTimer = Timer.builder("sms.dispatch.batch")
+                .description("提供商单次批量提交耗时")
+                .register(meterRegistry);
+        Gauge.builder("sms.dispatch.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sms-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        workerThreads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "sms-dispatch-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            workerThreads.add(thread);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        for (Thread thread : workerThreads) {
+            thread.interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("停止时仍有 {} 条短信未发送", queue.size());
+        }
+    }
+
+    /**
+     * 提交短信，不等待发送结果
+     *
+     * @return false 表示队列已满
+     */
+    public boolean enqueue(SmsMessage message) {
+        if (queue.offer(message)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private void work() {
+        int batchSize = Math.max(1, provider.getMaxBatchSize());
+        List<SmsMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SmsMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("短信发送线程异常: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<SmsMessage> batch) {
+        long now = System.currentTimeMillis();
+        List<SmsMessage> pending = new ArrayList<>(batch.size());
+        for (SmsMessage message : batch) {
+            if (now >= message.getExpireTime()) {
+                expired.increment();
+            } else {
+                message.incrementAttempts();
+                pending.add(message);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<SmsMessage> failures;
+        long start = System.nanoTime();
+        try {
+            failures = provider.send(pending);
+        } catch (Exception e) {
+            log.warn("短信批量发送失败（{} 条）: {}", pending.size(), e.getMessage());
+            failures = pending;
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        sent.increment(pending.size() - failures.size());
+        for (SmsMessage message : failures) {
+            scheduleRetry(message);
+        }
+    }
+
+    private void scheduleRetry(SmsMessage message) {
+        if (message.getAttempts() >= maxAttempts) {
+            failed.increment();
+            log.error("短信发送失败，已重试 {} 次，手机号: {}", message.getAttempts(), message.getPhone());
+            return;
+        }
+        long delay = Math.min(maxRetryBackoffMillis, retryBackoffMillis << Math.min(message.getAttempts() - 1, 20));
+        retried.increment();
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(message)) {
+                failed.increment();
+                log.error("短信重试时队列已满，放弃发送，手机号: {}", message.getPhone());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
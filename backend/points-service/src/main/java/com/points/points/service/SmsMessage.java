@@ -0,0 +1,52 @@
+package com.points.points.service;
+
+/**
+ * 待发送的验证码短信
+ */
+public final class SmsMessage {
+
+    private final String phone;
+    private final String code;
+    private final int expirationSeconds;
+
+    /**
+     * 验证码过期时间（毫秒时间戳），过期后不再发送或重试
+     */
+    private final long expireTime;
+
+    /**
+     * 已尝试发送的次数
+     */
+    private int attempts;
+
+    public SmsMessage(String phone, String code, int expirationSeconds) {
+        this.phone = phone;
+        this.code = code;
+        this.expirationSeconds = expirationSeconds;
+        this.expireTime = System.currentTimeMillis() + expirationSeconds * 1000L;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int getExpirationSeconds() {
+        return expirationSeconds;
+    }
+
+    public long getExpireTime() {
+        return expireTime;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    int incrementAttempts() {
+        return ++attempts;
+    }
+}
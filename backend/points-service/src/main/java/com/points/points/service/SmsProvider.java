@@ -0,0 +1,26 @@
+package com.points.points.service;
+
+import java.util.List;
+
+/**
+ * 短信服务提供商
+ *
+ * 接入真实提供商（阿里云、腾讯云等）时实现此接口并注册为 Bean，由 sms.provider 选择；
+ * 调用在 SmsDispatcher 的工作线程中执行，不阻塞请求线程
+ */
+public interface SmsProvider {
+
+    /**
+     * 一次调用最多提交的短信数量，不支持批量发送时返回 1
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 发送一批短信
+     *
+     * @param messages 不超过 getMaxBatchSize() 条
+     * @return 发送失败、需要重试的短信，全部成功时返回空列表；
+     *         抛出异常表示整批失败
+     */
+    List<SmsMessage> send(List<SmsMessage> messages);
+}
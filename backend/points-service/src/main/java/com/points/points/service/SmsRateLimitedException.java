@@ -0,0 +1,18 @@
+package com.points.points.service;
+
+/**
+ * 发送验证码被限流
+ */
+public class SmsRateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SmsRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
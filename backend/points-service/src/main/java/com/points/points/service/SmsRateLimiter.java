@@ -0,0 +1,87 @@
+package com.points.points.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 发送验证码限流（令牌桶，见 StripedTokenBuckets）
+ *
+ * 1. 按IP：在查询用户信息之前检查，被拒绝的请求不访问 auth-service 和数据库
+ * 2. 按手机号：在生成和保存验证码之前检查，限制同一手机号收到的短信数量
+ * 只在本实例内计数，多实例部署时每个实例各自限流
+ */
+@Component
+@RequiredArgsConstructor
+public class SmsRateLimiter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sms.rate-limit.phone.capacity:3}")
+    private int phoneCapacity;
+
+    @Value("${sms.rate-limit.phone.refill-interval-ms:60000}")
+    private long phoneRefillIntervalMillis;
+
+    @Value("${sms.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${sms.rate-limit.ip.refill-interval-ms:6000}")
+    private long ipRefillIntervalMillis;
+
+    @Value("${sms.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    @Value("${sms.rate-limit.stripes:64}")
+    private int stripes;
+
+    private StripedTokenBuckets phoneBuckets;
+    private StripedTokenBuckets ipBuckets;
+    private Counter phoneRejections;
+    private Counter ipRejections;
+
+    @PostConstruct
+    public void init() {
+        phoneBuckets = new StripedTokenBuckets(phoneCapacity, phoneRefillIntervalMillis, maxTrackedKeys, stripes);
+        ipBuckets = new StripedTokenBuckets(ipCapacity, ipRefillIntervalMillis, maxTrackedKeys, stripes);
+        phoneRejections = Counter.builder("sms.rate_limit.rejected").tag("key", "phone").register(meterRegistry);
+        ipRejections = Counter.builder("sms.rate_limit.rejected").tag("key", "ip").register(meterRegistry);
+        Gauge.builder("sms.rate_limit.keys", phoneBuckets, StripedTokenBuckets::size).tag("key", "phone")
+                .register(meterRegistry);
+        Gauge.builder("sms.rate_limit.keys", ipBuckets, StripedTokenBuckets::size).tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws SmsRateLimitedException 该IP发送过于频繁
+     */
+    public void acquireForIp(String clientIp) {
+        if (clientIp == null) {
+            return;
+        }
+        long waitMillis = ipBuckets.tryAcquire(clientIp);
+        if (waitMillis > 0) {
+            ipRejections.increment();
+            throw new SmsRateLimitedException("请求过于频繁，请稍后再试", toSeconds(waitMillis));
+        }
+    }
+
+    /**
+     * @throws SmsRateLimitedException 该手机号发送过于频繁
+     */
+    public void acquireForPhone(String phone) {
+        long waitMillis = phoneBuckets.tryAcquire(phone);
+        if (waitMillis > 0) {
+            phoneRejections.increment();
+            throw new SmsRateLimitedException("验证码发送过于频繁，请稍后再试", toSeconds(waitMillis));
+        }
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
@@ -1,28 +1,32 @@
 package com.points.points.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * 短信验证码服务
  * 
- * 注意：当前实现使用内存存储验证码，生产环境应使用Redis
- * 短信发送功能需要集成真实的短信服务提供商（如阿里云、腾讯云等）
+ * 验证码存储见 VerificationCodeStore：默认保存在本实例内存，多实例部署时配置 verification.store.type=redis
+ * 短信由 SmsDispatcher 异步发送，接入真实提供商时实现 SmsProvider（默认只写日志）
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class SmsService {
 
     @Value("${verification.expiration:300}")
     private int expirationSeconds;
 
-    // 验证码存储（key: phone, value: {code, expireTime}）
-    private final ConcurrentMap<String, CodeInfo> codeStorage = new ConcurrentHashMap<>();
+    // 验证码存储（key: phone）
+    private final VerificationCodeStore codeStorage;
+
+    private final SmsDispatcher smsDispatcher;
+
+    private final SmsRateLimiter smsRateLimiter;
 
     /**
      * 发送短信验证码
@@ -35,17 +39,21 @@ public class SmsService {
             throw new RuntimeException("手机号格式不正确");
         }
 
+        // 同一手机号发送过于频繁时直接拒绝，不覆盖已发送的验证码
+        smsRateLimiter.acquireForPhone(phone);
+
         // 生成6位数字验证码
         String code = generateCode();
-        long expireTime = System.currentTimeMillis() + expirationSeconds * 1000L;
 
         // 存储验证码
-        codeStorage.put(phone, new CodeInfo(code, expireTime));
+        codeStorage.save(phone, code, expirationSeconds * 1000L);
+
+        // 放入发送队列后立即返回，不等待短信服务提供商
+        if (!smsDispatcher.enqueue(new SmsMessage(phone, code, expirationSeconds))) {
+            log.warn("短信发送队列已满，手机号: {}", phone);
+            throw new RuntimeException("短信发送繁忙，请稍后重试");
+        }
 
-        // TODO: 集成真实的短信服务发送验证码
-        // 示例：调用阿里云、腾讯云等短信服务API
-        log.info("发送短信验证码到手机号: {}, 验证码: {} (有效期: {}秒)", phone, code, expirationSeconds);
-        
         // 开发环境返回验证码，生产环境不应返回
         // 生产环境应该只返回成功/失败，不返回验证码
         return code;
@@ -73,29 +81,20 @@ public class SmsService {
             return new VerificationResult(false, "请输入验证码");
         }
 
-        CodeInfo codeInfo = codeStorage.get(phone);
-        if (codeInfo == null) {
-            log.warn("手机号 {} 的验证码不存在或已过期，当前存储的验证码数量: {}", phone, codeStorage.size());
-            return new VerificationResult(false, "验证码不存在或已过期，请重新发送验证码");
-        }
-
-        // 检查是否过期
-        if (System.currentTimeMillis() > codeInfo.expireTime) {
-            codeStorage.remove(phone);
-            log.warn("手机号 {} 的验证码已过期，过期时间: {}", phone, codeInfo.expireTime);
-            return new VerificationResult(false, "验证码已过期，请重新发送验证码");
-        }
-
-        // 验证码匹配（去除前后空格后比较）
-        if (codeInfo.code.equals(code)) {
-            // 验证成功后删除验证码（一次性使用）
-            codeStorage.remove(phone);
-            log.info("手机号 {} 验证码验证成功，验证码: {}", phone, code);
-            return new VerificationResult(true, null);
+        switch (codeStorage.consume(phone, code)) {
+            case MATCHED:
+                log.info("手机号 {} 验证码验证成功，验证码: {}", phone, code);
+                return new VerificationResult(true, null);
+            case MISMATCH:
+                log.warn("手机号 {} 验证码错误，输入: {}", phone, code);
+                return new VerificationResult(false, "验证码错误，请检查后重新输入");
+            case EXPIRED:
+                log.warn("手机号 {} 的验证码已过期", phone);
+                return new VerificationResult(false, "验证码已过期，请重新发送验证码");
+            default:
+                log.warn("手机号 {} 的验证码不存在或已过期", phone);
+                return new VerificationResult(false, "验证码不存在或已过期，请重新发送验证码");
         }
-
-        log.warn("手机号 {} 验证码错误，输入: {}，存储: {}", phone, code, codeInfo.code);
-        return new VerificationResult(false, "验证码错误，请检查后重新输入");
     }
 
     /**
@@ -126,18 +125,4 @@ public class SmsService {
         Random random = new Random();
         return String.format("%06d", random.nextInt(1000000));
     }
-
-    /**
-     * 验证码信息
-     */
-    private static class CodeInfo {
-        final String code;
-        final long expireTime;
-
-        CodeInfo(String code, long expireTime) {
-            this.code = code;
-            this.expireTime = expireTime;
-        }
-    }
 }
-
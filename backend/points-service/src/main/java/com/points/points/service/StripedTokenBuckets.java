@@ -0,0 +1,120 @@
+package com.points.points.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段令牌桶
+ *
+ * 1. 按 key 的哈希分成若干段，每段一把锁，不同 key 的请求基本不互相等待
+ * 2. 每个 key 一个令牌桶：容量 capacity，每 refillIntervalMillis 补充一个令牌
+ * 3. 空闲到令牌已补满的桶与不存在等价，段满时优先清理这类桶，仍然不足再淘汰最久未访问的桶
+ */
+public class StripedTokenBuckets {
+
+    private final int capacity;
+    private final long refillIntervalNanos;
+    private final int maxKeysPerStripe;
+    private final Stripe[] stripes;
+
+    public StripedTokenBuckets(int capacity, long refillIntervalMillis, int maxKeys, int stripeCount) {
+        this.capacity = capacity;
+        this.refillIntervalNanos = refillIntervalMillis * 1_000_000L;
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.maxKeysPerStripe = Math.max(1, maxKeys / count);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 0 表示成功，否则为下一个令牌可用前需要等待的毫秒数
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Stripe stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    makeRoom(stripe, now);
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(now, capacity, refillIntervalNanos);
+            if (bucket.tokens > 0) {
+                bucket.tokens--;
+                return 0;
+            }
+            long waitNanos = refillIntervalNanos - (now - bucket.lastRefill);
+            return Math.max(1, (waitNanos + 999_999) / 1_000_000);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 当前跟踪的 key 数量（近似值，不加锁）
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private void makeRoom(Stripe stripe, long now) {
+        long fullAfterNanos = refillIntervalNanos * capacity;
+        stripe.buckets.values().removeIf(bucket -> now - bucket.lastAccess >= fullAfterNanos);
+        Iterator<Bucket> iterator = stripe.buckets.values().iterator();
+        while (stripe.buckets.size() >= maxKeysPerStripe && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        /**
+         * 按访问顺序排列，迭代时最久未访问的桶在前
+         */
+        final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Bucket {
+        int tokens;
+        long lastRefill;
+        long lastAccess;
+
+        Bucket(int tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+            this.lastAccess = now;
+        }
+
+        void refill(long now, int capacity, long refillIntervalNanos) {
+            lastAccess = now;
+            if (tokens >= capacity) {
+                lastRefill = now;
+                return;
+            }
+            long added = (now - lastRefill) / refillIntervalNanos;
+            if (added > 0) {
+                tokens = (int) Math.min(capacity, tokens + added);
+                lastRefill = tokens >= capacity ? now : lastRefill + added * refillIntervalNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.points.points.service;
+
+/**
+ * 验证码存储
+ *
+ * 由 verification.store.type 选择实现：
+ * 1. memory：本实例内存（InMemoryVerificationCodeStore），单实例部署和本地开发、测试使用
+ * 2. redis：Redis（RedisVerificationCodeStore），多实例部署时发送和验证可以落在不同实例
+ */
+public interface VerificationCodeStore {
+
+    /**
+     * 保存验证码（覆盖该手机号之前的验证码）
+     *
+     * @param ttlMillis 有效期（毫秒）
+     */
+    void save(String phone, String code, long ttlMillis);
+
+    /**
+     * 校验验证码，匹配时原子地删除（一次性使用，并发验证同一验证码时只有一个请求通过）；
+     * 不匹配时保留，用户可以重新输入
+     */
+    ConsumeResult consume(String phone, String code);
+
+    /**
+     * 校验结果
+     */
+    enum ConsumeResult {
+        /** 匹配，验证码已删除 */
+        MATCHED,
+        /** 不匹配 */
+        MISMATCH,
+        /** 不存在（未发送、已使用或已被清理） */
+        NOT_FOUND,
+        /** 已过期 */
+        EXPIRED
+    }
+}
@@ -1,17 +1,29 @@
 package com.points.product.controller;
 
+import com.points.common.annotation.CurrentUser;
+import com.points.common.annotation.RequireAdmin;
 import com.points.common.dto.ApiResponse;
 import com.points.common.dto.ProductDTO;
-import com.points.common.util.JwtUtil;
+import com.points.common.dto.ProductImportResult;
+import com.points.common.dto.ProductSearchResult;
+import com.points.common.security.JwtPrincipal;
+import com.points.product.service.ProductFields;
+import com.points.product.service.ProductImportService;
+import com.points.product.service.ProductSearchIndex;
 import com.points.product.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
  * 产品控制器
  * 使用String类型ID（UUID）
+ * 认证和管理员权限由 common 模块的 AuthenticationFilter 和 AuthInterceptor 统一处理
  */
 @RestController
 @RequestMapping("/api/products")
@@ -19,42 +31,63 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
-    private final JwtUtil jwtUtil;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductImportService productImportService;
 
     /**
      * 获取产品列表
+     * 支持 fields 参数只返回指定字段，例如 fields=id,name,points,stock,image
+     * 登录用户会返回本月已使用次数，Token无效时按未登录处理
      */
     @GetMapping(produces = "application/json;charset=UTF-8")
-    public ApiResponse<List<ProductDTO>> getProducts(@RequestHeader(value = "Authorization", required = false) String token) {
-        String userId = null;
-        if (token != null && token.startsWith("Bearer ")) {
-            try {
-                String actualToken = token.replace("Bearer ", "");
-                userId = jwtUtil.getUserIdFromToken(actualToken);
-            } catch (Exception e) {
-                // 忽略token错误，允许未登录用户查看产品
-            }
+    public ApiResponse<List<ProductDTO>> getProducts(
+            @CurrentUser(required = false) JwtPrincipal principal,
+            @RequestParam(required = false) String fields,
+            HttpServletResponse response) {
+        markUserSpecific(response, principal);
+        ProductFields selectedFields;
+        try {
+            selectedFields = ProductFields.parse(fields);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(400, e.getMessage());
         }
-        List<ProductDTO> products = productService.getAllProducts(userId);
+        String userId = principal != null ? principal.getUserId() : null;
+        List<ProductDTO> products = productService.getAllProducts(userId, selectedFields);
         return ApiResponse.success(products);
     }
 
+    /**
+     * 搜索产品（关键字、积分区间、仅有库存、排序，游标分页）
+     * 数据来自内存索引，不查询数据库
+     */
+    @GetMapping(value = "/search", produces = "application/json;charset=UTF-8")
+    public ApiResponse<ProductSearchResult> searchProducts(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Integer minPoints,
+            @RequestParam(required = false) Integer maxPoints,
+            @RequestParam(required = false, defaultValue = "false") boolean inStock,
+            @RequestParam(required = false, defaultValue = "default") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            ProductSearchResult result = productSearchIndex.search(
+                    keyword, minPoints, maxPoints, inStock, sort, cursor, size);
+            return ApiResponse.success(result);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+    }
+
     /**
      * 获取产品详情
      */
     @GetMapping("/{id}")
     public ApiResponse<ProductDTO> getProduct(
             @PathVariable String id,
-            @RequestHeader(value = "Authorization", required = false) String token) {
-        String userId = null;
-        if (token != null && token.startsWith("Bearer ")) {
-            try {
-                String actualToken = token.replace("Bearer ", "");
-                userId = jwtUtil.getUserIdFromToken(actualToken);
-            } catch (Exception e) {
-                // 忽略token错误
-            }
-        }
+            @CurrentUser(required = false) JwtPrincipal principal,
+            HttpServletResponse response) {
+        markUserSpecific(response, principal);
+        String userId = principal != null ? principal.getUserId() : null;
         ProductDTO product = productService.getProductById(id, userId);
         if (product == null) {
             return ApiResponse.error(404, "产品不存在");
@@ -62,31 +95,30 @@ public class ProductController {
         return ApiResponse.success(product);
     }
 
+    /**
+     * 登录用户的响应包含本月已使用次数：通过 Vary 告知网关缓存按用户区分，并禁止共享缓存
+     */
+    private static void markUserSpecific(HttpServletResponse response, JwtPrincipal principal) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        if (principal != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private");
+        }
+    }
+
     /**
      * 更新产品使用次数（内部接口）
      * 安全修复：添加认证，仅允许内部服务调用
      */
     @PostMapping("/{id}/usage")
     public ApiResponse<Void> updateUsage(
-            @RequestHeader(value = "Authorization", required = false) String token,
+            @CurrentUser JwtPrincipal principal,
             @PathVariable String id,
             @RequestBody UsageRequest request) {
-        // 验证内部服务调用（简化处理，生产环境应使用服务间认证）
-        if (token == null || !token.startsWith("Bearer ")) {
-            return ApiResponse.error(401, "需要认证");
-        }
-
         try {
-            String actualToken = token.replace("Bearer ", "");
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-            
             productService.updateProductUsage(id, request.getQuantity(), request.getUserId());
             return ApiResponse.success("更新成功", null);
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
         }
     }
 
@@ -94,40 +126,21 @@ public class ProductController {
      * 获取所有产品（管理后台，包括下架产品）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @GetMapping("/admin/all")
     public ApiResponse<List<ProductDTO>> getAllProductsForAdmin(
-            @RequestHeader("Authorization") String token) {
+            @RequestParam(required = false) String fields) {
+        ProductFields selectedFields;
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限（在 try-catch 中处理可能的异常）
-            String role;
-            try {
-                role = jwtUtil.getRoleFromToken(actualToken);
-            } catch (Exception e) {
-                // 如果获取角色时出错，说明 token 可能有问题
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-            
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
-            List<ProductDTO> products = productService.getAllProductsForAdmin();
+            selectedFields = ProductFields.parse(fields);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(400, e.getMessage());
+        }
+        try {
+            List<ProductDTO> products = productService.getAllProductsForAdmin(selectedFields);
             return ApiResponse.success(products);
-        } catch (Exception e) {
-            // 记录异常日志以便调试
-            e.printStackTrace();
-            return ApiResponse.error(401, "Token无效");
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
         }
     }
 
@@ -135,35 +148,16 @@ public class ProductController {
      * 更新产品（管理后台）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @PutMapping("/admin/{id}")
     public ApiResponse<ProductDTO> updateProduct(
-            @RequestHeader("Authorization") String token,
             @PathVariable String id,
             @RequestBody ProductUpdateRequest request) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限
-            String role = jwtUtil.getRoleFromToken(actualToken);
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
             ProductDTO product = productService.updateProduct(id, request);
             return ApiResponse.success(product);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -171,35 +165,16 @@ public class ProductController {
      * 更新产品库存（管理后台）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @PutMapping("/admin/{id}/stock")
     public ApiResponse<ProductDTO> updateProductStock(
-            @RequestHeader("Authorization") String token,
             @PathVariable String id,
             @RequestBody StockUpdateRequest request) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限
-            String role = jwtUtil.getRoleFromToken(actualToken);
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
             ProductDTO product = productService.updateProductStock(id, request.getStock());
             return ApiResponse.success(product);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -207,35 +182,16 @@ public class ProductController {
      * 上下架产品（管理后台）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @PutMapping("/admin/{id}/status")
     public ApiResponse<ProductDTO> updateProductStatus(
-            @RequestHeader("Authorization") String token,
             @PathVariable String id,
             @RequestBody StatusUpdateRequest request) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限
-            String role = jwtUtil.getRoleFromToken(actualToken);
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
             ProductDTO product = productService.updateProductStatus(id, request.getStatus());
             return ApiResponse.success(product);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
         }
     }
 
@@ -243,34 +199,38 @@ public class ProductController {
      * 创建新产品（管理后台）
      * 安全修复：必须验证管理员权限
      */
+    @RequireAdmin
     @PostMapping("/admin")
-    public ApiResponse<ProductDTO> createProduct(
-            @RequestHeader("Authorization") String token,
-            @RequestBody ProductCreateRequest request) {
+    public ApiResponse<ProductDTO> createProduct(@RequestBody ProductCreateRequest request) {
         try {
-            if (token == null || !token.startsWith("Bearer ")) {
-                return ApiResponse.error(401, "需要认证");
-            }
-
-            String actualToken = token.replace("Bearer ", "");
-            
-            // 验证 token 有效性
-            if (!jwtUtil.validateToken(actualToken)) {
-                return ApiResponse.error(401, "Token无效或已过期");
-            }
-
-            // 验证管理员权限
-            String role = jwtUtil.getRoleFromToken(actualToken);
-            if (role == null || !"admin".equals(role)) {
-                return ApiResponse.error(403, "需要管理员权限");
-            }
-
             ProductDTO product = productService.createProduct(request);
             return ApiResponse.success(product);
         } catch (RuntimeException e) {
             return ApiResponse.error(e.getMessage());
-        } catch (Exception e) {
-            return ApiResponse.error(401, "Token无效");
+        }
+    }
+
+    /**
+     * 批量导入产品（管理后台）
+     * 请求体为 CSV（Content-Type: text/csv）或 NDJSON（Content-Type: application/x-ndjson），流式读取
+     * 带 id 且已存在的行更新产品，其余行新建产品
+     */
+    @RequireAdmin
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ApiResponse<ProductImportResult> importProducts(HttpServletRequest httpRequest) {
+        try {
+            String contentType = httpRequest.getContentType();
+            String format = contentType != null && contentType.startsWith("text/csv")
+                    ? ProductImportService.FORMAT_CSV : ProductImportService.FORMAT_NDJSON;
+            ProductImportResult result = productImportService.importProducts(httpRequest.getInputStream(), format);
+            // 各批次已提交，在当前请求中重建索引，返回的版本号已包含导入的产品
+            productSearchIndex.rebuild();
+            result.setCatalogVersion(productSearchIndex.getCatalogVersion());
+            return ApiResponse.success(result);
+        } catch (RuntimeException e) {
+            return ApiResponse.error(e.getMessage());
+        } catch (IOException e) {
+            return ApiResponse.error(400, "读取导入数据失败: " + e.getMessage());
         }
     }
 
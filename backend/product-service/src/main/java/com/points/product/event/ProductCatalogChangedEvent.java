@@ -0,0 +1,19 @@
+package com.points.product.event;
+
+/**
+ * 产品目录变更事件
+ * 产品新增、修改、上下架或批量导入后发布，用于重建内存中的产品索引
+ * 只有库存变化时发布 ProductStockChangedEvent
+ */
+public class ProductCatalogChangedEvent {
+
+    private final String productId;
+
+    public ProductCatalogChangedEvent(String productId) {
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.points.product.event;
+
+/**
+ * 产品库存变更事件
+ * 兑换扣减库存（同时增加使用次数）或管理后台只修改库存后发布，
+ * 产品索引只更新该产品的库存和热度，不整体重建
+ */
+public class ProductStockChangedEvent {
+
+    private final String productId;
+
+    public ProductStockChangedEvent(String productId) {
+        this.productId = productId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+}
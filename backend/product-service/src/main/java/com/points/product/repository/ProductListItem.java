@@ -0,0 +1,9 @@
+package com.points.product.repository;
+
+/**
+ * 包含描述的产品列表投影
+ * 列表请求需要 description 字段时使用
+ */
+public interface ProductListItem extends ProductSummary {
+    String getDescription();
+}
@@ -2,6 +2,8 @@ package com.points.product.repository;
 
 import com.points.product.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,4 +13,24 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     List<Product> findByStatusOrderByCreatedAtDesc(Integer status);
     
     List<Product> findAllByOrderByCreatedAtDesc();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.points AS points, p.stock AS stock, p.image AS image, " +
+           "p.monthlyLimit AS monthlyLimit, p.status AS status " +
+           "FROM Product p WHERE p.status = :status ORDER BY p.createdAt DESC")
+    List<ProductSummary> findSummariesByStatus(@Param("status") Integer status);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.points AS points, p.description AS description, " +
+           "p.stock AS stock, p.image AS image, p.monthlyLimit AS monthlyLimit, p.status AS status " +
+           "FROM Product p WHERE p.status = :status ORDER BY p.createdAt DESC")
+    List<ProductListItem> findListItemsByStatus(@Param("status") Integer status);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.points AS points, p.stock AS stock, p.image AS image, " +
+           "p.monthlyLimit AS monthlyLimit, p.status AS status " +
+           "FROM Product p ORDER BY p.createdAt DESC")
+    List<ProductSummary> findAllSummaries();
+
+    @Query("SELECT p.id AS id, p.name AS name, p.points AS points, p.description AS description, " +
+           "p.stock AS stock, p.image AS image, p.monthlyLimit AS monthlyLimit, p.status AS status " +
+           "FROM Product p ORDER BY p.createdAt DESC")
+    List<ProductListItem> findAllListItems();
 }
@@ -0,0 +1,21 @@
+package com.points.product.repository;
+
+/**
+ * 产品列表投影
+ * 只查询列表展示需要的列，不加载 description（TEXT）等大字段，也不创建实体对象
+ */
+public interface ProductSummary {
+    String getId();
+
+    String getName();
+
+    Integer getPoints();
+
+    Integer getStock();
+
+    String getImage();
+
+    Integer getMonthlyLimit();
+
+    Integer getStatus();
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,4 +23,26 @@ public interface ProductUsageRepository extends JpaRepository<ProductUsage, Stri
             @Param("productId") String productId,
             @Param("year") Integer year,
             @Param("month") Integer month);
+
+    @Query("SELECT pu FROM ProductUsage pu " +
+           "WHERE pu.userId = :userId " +
+           "AND pu.year = :year " +
+           "AND pu.month = :month")
+    List<ProductUsage> findByUserAndMonth(
+            @Param("userId") String userId,
+            @Param("year") Integer year,
+            @Param("month") Integer month);
+
+    /**
+     * 按产品汇总累计使用次数（用于热度排序）
+     */
+    @Query("SELECT pu.productId, SUM(pu.count) FROM ProductUsage pu GROUP BY pu.productId")
+    List<Object[]> sumCountGroupByProduct();
+
+    /**
+     * 汇总指定产品的累计使用次数（库存变更后局部更新索引）
+     */
+    @Query("SELECT pu.productId, SUM(pu.count) FROM ProductUsage pu " +
+           "WHERE pu.productId IN :productIds GROUP BY pu.productId")
+    List<Object[]> sumCountGroupByProductIn(@Param("productIds") Collection<String> productIds);
 }
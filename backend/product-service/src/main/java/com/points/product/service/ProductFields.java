@@ -0,0 +1,67 @@
+package com.points.product.service;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 产品列表字段选择（fields=id,name,points）
+ * 未指定时返回全部字段，id 始终返回
+ */
+public final class ProductFields {
+
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String POINTS = "points";
+    public static final String DESCRIPTION = "description";
+    public static final String STOCK = "stock";
+    public static final String IMAGE = "image";
+    public static final String MONTHLY_LIMIT = "monthlyLimit";
+    public static final String USED_THIS_MONTH = "usedThisMonth";
+    public static final String STATUS = "status";
+
+    private static final List<String> SUPPORTED = List.of(
+            ID, NAME, POINTS, DESCRIPTION, STOCK, IMAGE, MONTHLY_LIMIT, USED_THIS_MONTH, STATUS);
+
+    public static final ProductFields ALL = new ProductFields(new LinkedHashSet<>(SUPPORTED));
+
+    private final Set<String> fields;
+
+    private ProductFields(Set<String> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * 解析 fields 参数
+     *
+     * @param fields 逗号分隔的字段名，为空表示全部字段
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(ID);
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SUPPORTED.contains(name)) {
+                throw new RuntimeException("不支持的字段: " + name + "，可选字段: " + String.join(",", SUPPORTED));
+            }
+            selected.add(name);
+        }
+        return new ProductFields(selected);
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", fields);
+    }
+}
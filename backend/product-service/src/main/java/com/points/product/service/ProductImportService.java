@@ -0,0 +1,437 @@
+package com.points.product.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.points.common.dto.ProductImportResult;
+import com.points.product.controller.ProductController.ProductCreateRequest;
+import com.points.product.entity.Product;
+import com.points.product.event.ProductCatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 产品批量导入服务
+ *
+ * 支持 CSV（首行为表头）和 NDJSON（每行一个JSON对象）两种格式，逐行流式读取：
+ * 1. id 不存在的行按 ProductService.buildNewProduct 的规则校验后插入；
+ *    id 已存在的行只更新有值的列（空单元格、缺少的字段保留原值），只校验有值的列
+ * 2. 校验失败的行记录错误并跳过，通过校验的行按批次使用 JDBC 批量写入
+ * 3. 每批在单独的事务中提交；某批写入失败时逐行重试，失败的行记录错误（不返回原始SQL错误），其他行照常导入
+ * 4. 导入结束后只发布一次目录变更事件
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    /**
+     * 返回的行级错误最多条数，避免错误数据过多时响应过大
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, name, points, description, stock, image, monthly_limit, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * 参数为 null 的列保留原值
+     */
+    private static final String UPDATE_SQL =
+            "UPDATE products SET name = COALESCE(?, name), points = COALESCE(?, points), " +
+            "description = COALESCE(?, description), stock = COALESCE(?, stock), image = COALESCE(?, image), " +
+            "monthly_limit = COALESCE(?, monthly_limit), status = COALESCE(?, status), updated_at = ? WHERE id = ?";
+
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 导入产品
+     *
+     * @param input 请求体输入流
+     * @param format csv 或 ndjson
+     * @return 导入结果（包含行级错误）
+     */
+    public ProductImportResult importProducts(InputStream input, String format) throws IOException {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        if (!csv && !FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            throw new RuntimeException("不支持的导入格式: " + format);
+        }
+
+        ProductImportResult result = new ProductImportResult(0, 0, 0, new ArrayList<>(), null);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        try {
+            String[] header = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && header == null) {
+                    header = parseCsvLine(stripBom(line)).toArray(new String[0]);
+                    continue;
+                }
+
+                int row = result.getTotalRows() + 1;
+                result.setTotalRows(row);
+                try {
+                    batch.add(csv ? fromCsv(row, header, line) : fromJson(row, line));
+                } catch (RuntimeException e) {
+                    recordError(result, row, e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() >= batchSize) {
+                    flush(batch, result);
+                }
+            }
+            flush(batch, result);
+        } finally {
+            // 已提交的批次需要刷新目录，即使后续读取失败
+            if (result.getImported() > 0) {
+                eventPublisher.publishEvent(new ProductCatalogChangedEvent(null));
+            }
+        }
+
+        result.getErrors().sort(Comparator.comparing(ProductImportResult.RowError::getRow));
+        log.info("产品批量导入完成，总行数 {}，成功 {}，失败 {}",
+                result.getTotalRows(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    /**
+     * 写入一批：查询已存在的 id 决定插入或更新，校验后在一个事务中写入
+     */
+    private void flush(List<ImportRow> batch, ProductImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> existing;
+        try {
+            existing = findExistingIds(batch);
+        } catch (DataAccessException e) {
+            log.warn("产品导入查询已有产品失败: {}", e.getMostSpecificCause().getMessage());
+            batch.forEach(row -> recordError(result, row.row, describe(e)));
+            batch.clear();
+            return;
+        }
+        List<Write> inserts = new ArrayList<>();
+        List<Write> updates = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (ImportRow row : batch) {
+            try {
+                if (row.id != null && existing.contains(row.id)) {
+                    updates.add(new Write(row.row, UPDATE_SQL, toUpdateParameters(row, now)));
+                } else {
+                    Write insert = new Write(row.row, INSERT_SQL, toInsertParameters(row, now));
+                    inserts.add(insert);
+                    // 同一批中重复的 id，后面的行按更新处理
+                    existing.add((String) insert.parameters[0]);
+                }
+            } catch (RuntimeException e) {
+                recordError(result, row.row, e.getMessage());
+            }
+        }
+        batch.clear();
+
+        List<Write> writes = new ArrayList<>(inserts);
+        writes.addAll(updates);
+        if (writes.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, parametersOf(inserts));
+                jdbcTemplate.batchUpdate(UPDATE_SQL, parametersOf(updates));
+            });
+            result.setImported(result.getImported() + writes.size());
+        } catch (DataAccessException e) {
+            log.warn("产品导入批量写入失败，改为逐行写入: {}", e.getMostSpecificCause().getMessage());
+            for (Write write : writes) {
+                try {
+                    jdbcTemplate.update(write.sql, write.parameters);
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    log.warn("产品导入第 {} 行写入失败: {}", write.row, rowError.getMostSpecificCause().getMessage());
+                    recordError(result, write.row, describe(rowError));
+                }
+            }
+        }
+    }
+
+    private Set<String> findExistingIds(List<ImportRow> batch) {
+        List<String> ids = batch.stream()
+                .map(row -> row.id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<String> existing = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        existing.addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE id IN (" + placeholders + ")", String.class, ids.toArray()));
+        return existing;
+    }
+
+    private static List<Object[]> parametersOf(List<Write> writes) {
+        return writes.stream().map(write -> write.parameters).toList();
+    }
+
+    /**
+     * 数据库错误只返回概要，原始信息（含SQL和表结构）只写日志
+     */
+    private static String describe(DataAccessException e) {
+        if (e instanceof DuplicateKeyException) {
+            return "产品ID重复";
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "数据不符合数据库约束（字段过长或缺少必填字段）";
+        }
+        return "写入数据库失败";
+    }
+
+    private void recordError(ProductImportResult result, int row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ProductImportResult.RowError(row, message));
+        }
+    }
+
+    private Object[] toInsertParameters(ImportRow row, Timestamp now) {
+        Product product = productService.buildNewProduct(row.request);
+        checkLength(product.getName(), product.getImage());
+        String id = row.id != null ? row.id : UUID.randomUUID().toString();
+        return new Object[]{
+                id,
+                product.getName(),
+                product.getPoints(),
+                product.getDescription(),
+                product.getStock(),
+                product.getImage(),
+                product.getMonthlyLimit(),
+                product.getStatus(),
+                now,
+                now
+        };
+    }
+
+    /**
+     * 更新已存在的产品：只校验有值的列，规则与 buildNewProduct 一致
+     */
+    private Object[] toUpdateParameters(ImportRow row, Timestamp now) {
+        ProductCreateRequest request = row.request;
+        if (request.getPoints() != null && request.getPoints() <= 0) {
+            throw new RuntimeException("所需积分必须大于0");
+        }
+        if (request.getStock() != null && request.getStock() < 0) {
+            throw new RuntimeException("库存不能为负数");
+        }
+        if (request.getMonthlyLimit() != null && request.getMonthlyLimit() < 0) {
+            throw new RuntimeException("月度限制不能为负数");
+        }
+        String name = request.getName() != null ? request.getName().trim() : null;
+        String image = request.getImage() != null ? request.getImage().trim() : null;
+        checkLength(name, image);
+        return new Object[]{
+                name,
+                request.getPoints(),
+                request.getDescription() != null ? request.getDescription().trim() : null,
+                request.getStock(),
+                image,
+                request.getMonthlyLimit(),
+                request.getStatus(),
+                now,
+                row.id
+        };
+    }
+
+    private static void checkLength(String name, String image) {
+        if (name != null && name.length() > 100) {
+            throw new RuntimeException("产品名称不能超过100个字符");
+        }
+        if (image != null && image.length() > 500) {
+            throw new RuntimeException("图片URL不能超过500个字符");
+        }
+    }
+
+    private ImportRow fromJson(int row, String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (IOException e) {
+            throw new RuntimeException("JSON格式错误");
+        }
+        if (node == null || !node.isObject()) {
+            throw new RuntimeException("JSON格式错误");
+        }
+        Map<String, String> values = new HashMap<>();
+        node.fields().forEachRemaining(field ->
+                values.put(normalizeColumn(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText()));
+        return toRow(row, values);
+    }
+
+    private ImportRow fromCsv(int row, String[] header, String line) {
+        List<String> cells = parseCsvLine(line);
+        if (cells.size() > header.length) {
+            throw new RuntimeException("列数与表头不一致");
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            values.put(normalizeColumn(header[i]), cells.get(i));
+        }
+        return toRow(row, values);
+    }
+
+    /**
+     * 空字符串按未填写处理（新建时使用默认值，更新时保留原值）
+     */
+    private ImportRow toRow(int row, Map<String, String> values) {
+        ProductCreateRequest request = new ProductCreateRequest();
+        request.setName(blankToNull(values.get("name")));
+        request.setPoints(parseInteger(values.get("points"), "所需积分"));
+        request.setDescription(blankToNull(values.get("description")));
+        request.setStock(parseInteger(values.get("stock"), "库存"));
+        request.setImage(blankToNull(values.get("image")));
+        request.setMonthlyLimit(parseInteger(values.get("monthlylimit"), "月度限制"));
+        request.setStatus(parseInteger(values.get("status"), "状态"));
+        if (request.getStatus() != null && request.getStatus() != 0 && request.getStatus() != 1) {
+            throw new RuntimeException("状态只能为0或1");
+        }
+        String id = blankToNull(values.get("id"));
+        if (id != null) {
+            id = id.trim();
+            if (id.length() > 36) {
+                throw new RuntimeException("产品ID格式不正确");
+            }
+        }
+        return new ImportRow(row, id, request);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static Integer parseInteger(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(field + "必须为整数");
+        }
+    }
+
+    /**
+     * 列名统一为小写并去掉下划线，monthly_limit 和 monthlyLimit 都可以识别
+     */
+    private static String normalizeColumn(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    /**
+     * 解析一行CSV，支持双引号包裹和 "" 转义（不支持单元格内换行）
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new RuntimeException("CSV引号未闭合");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static class ImportRow {
+        final int row;
+        final String id;
+        final ProductCreateRequest request;
+
+        ImportRow(int row, String id, ProductCreateRequest request) {
+            this.row = row;
+            this.id = id;
+            this.request = request;
+        }
+    }
+
+    /**
+     * 校验通过、待写入的一行
+     */
+    private static class Write {
+        final int row;
+        final String sql;
+        final Object[] parameters;
+
+        Write(int row, String sql, Object[] parameters) {
+            this.row = row;
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+    }
+}
@@ -0,0 +1,751 @@
+package com.points.product.service;
+
+import com.points.common.dto.ProductDTO;
+import com.points.common.dto.ProductSearchResult;
+import com.points.product.entity.Product;
+import com.points.product.event.ProductCatalogChangedEvent;
+import com.points.product.event.ProductStockChangedEvent;
+import com.points.product.repository.ProductRepository;
+import com.points.product.repository.ProductUsageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 产品搜索内存索引
+ *
+ * 索引只包含上架产品，在目录变更后整体重建（不可变快照，读路径无锁）：
+ * 0. 重建和库存更新由事务提交后的事件触发，在单独的线程中执行，多次变更合并为一次；
+ *    查询只读取当前快照，不访问数据库
+ * 1. 名称和描述按单字和相邻双字建立倒排表，兼容中文和英文关键字，命中后再做一次包含校验
+ * 2. 每种排序方式预先计算有序数组，分页使用基于排序键的游标，快照重建后游标仍然有效
+ * 3. 只有库存变化（兑换、后台改库存）时复制快照并替换对应产品，倒排表和有序数组沿用，
+ *    热度排序只移动变化的产品
+ * 4. 每个快照缓存各筛选条件的结果总数，翻页时不再扫描全部产品
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 每个快照最多缓存的筛选条件数量，超过后新的条件不再缓存
+     */
+    private static final int MAX_CACHED_TOTALS = 1024;
+
+    /**
+     * 刷新失败（如数据库暂时不可用）后的重试间隔
+     */
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    private final ProductRepository productRepository;
+    private final ProductUsageRepository usageRepository;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicLong changeCount = new AtomicLong();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    /**
+     * 库存已变化、尚未更新到快照的产品ID
+     */
+    private final Set<String> pendingStockUpdates = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否已有刷新任务在排队，排队期间的变更由同一次刷新处理
+     */
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-index-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 排序方式，排序键统一按升序比较，降序排序存储取反后的值
+     */
+    public enum SortOrder {
+        DEFAULT("default"),
+        POINTS_ASC("points_asc"),
+        POINTS_DESC("points_desc"),
+        POPULARITY("popularity");
+
+        private final String code;
+
+        SortOrder(String code) {
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public static SortOrder fromCode(String code) {
+            if (code == null || code.isEmpty()) {
+                return DEFAULT;
+            }
+            for (SortOrder order : values()) {
+                if (order.code.equalsIgnoreCase(code)) {
+                    return order;
+                }
+            }
+            throw new RuntimeException("不支持的排序方式: " + code);
+        }
+
+        long keyOf(Entry entry) {
+            return switch (this) {
+                case DEFAULT -> -entry.createdAt;
+                case POINTS_ASC -> entry.points;
+                case POINTS_DESC -> -entry.points;
+                case POPULARITY -> -entry.popularity;
+            };
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * 目录变更后标记索引过期并安排重建，事务提交后才生效，避免重建时读到未提交的数据
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        changeCount.incrementAndGet();
+        scheduleRefresh(0);
+    }
+
+    /**
+     * 库存变更后记录产品ID并安排刷新，只更新这些产品
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        if (event.getProductId() != null) {
+            pendingStockUpdates.add(event.getProductId());
+            scheduleRefresh(0);
+        }
+    }
+
+    /**
+     * 当前目录版本号
+     */
+    public long getCatalogVersion() {
+        return currentSnapshot().version;
+    }
+
+    /**
+     * 搜索上架产品
+     *
+     * @param keyword 关键字，多个关键字用空格分隔，需同时匹配名称或描述
+     * @param minPoints 最低积分（包含）
+     * @param maxPoints 最高积分（包含）
+     * @param inStockOnly 是否只返回有库存的产品
+     * @param sort 排序方式：default | points_asc | points_desc | popularity
+     * @param cursor 上一页返回的游标
+     * @param size 每页数量
+     */
+    public ProductSearchResult search(String keyword, Integer minPoints, Integer maxPoints,
+                                      boolean inStockOnly, String sort, String cursor, Integer size) {
+        SortOrder order = SortOrder.fromCode(sort);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long lowPoints = minPoints != null ? minPoints : Long.MIN_VALUE;
+        long highPoints = maxPoints != null ? maxPoints : Long.MAX_VALUE;
+
+        Snapshot current = currentSnapshot();
+        BitSet candidates = current.match(keyword);
+        int[] sorted = current.orders.get(order);
+        long[] keys = current.keys.get(order);
+
+        int start = 0;
+        int end = sorted.length;
+        // 按积分排序时，积分区间直接转换为有序数组上的下标区间
+        if (order == SortOrder.POINTS_ASC) {
+            start = lowerBound(keys, lowPoints);
+            end = upperBound(keys, highPoints);
+        } else if (order == SortOrder.POINTS_DESC) {
+            start = lowerBound(keys, negate(highPoints));
+            end = upperBound(keys, negate(lowPoints));
+        }
+
+        int resumeAt = start;
+        if (cursor != null && !cursor.isEmpty()) {
+            Cursor decoded = Cursor.decode(cursor);
+            if (decoded.order != order) {
+                throw new RuntimeException("游标与排序方式不匹配");
+            }
+            resumeAt = Math.max(start, current.positionAfter(order, decoded.key, decoded.id));
+        }
+
+        // 同一快照中相同筛选条件的总数不变（与排序方式无关），命中缓存时从游标位置开始扫描
+        FilterKey filter = new FilterKey(normalize(keyword).trim(), lowPoints, highPoints, inStockOnly);
+        Integer cachedTotal = current.totals.get(filter);
+        List<ProductDTO> items = new ArrayList<>(pageSize);
+        Entry last = null;
+        boolean hasMore = false;
+        int total = 0;
+        for (int i = cachedTotal != null ? resumeAt : start; i < end; i++) {
+            int doc = sorted[i];
+            if (candidates != null && !candidates.get(doc)) {
+                continue;
+            }
+            Entry entry = current.docs[doc];
+            if (entry.points < lowPoints || entry.points > highPoints) {
+                continue;
+            }
+            if (inStockOnly && entry.stock <= 0) {
+                continue;
+            }
+            total++;
+            if (i < resumeAt) {
+                continue;
+            }
+            if (items.size() < pageSize) {
+                items.add(entry.toDTO());
+                last = entry;
+            } else {
+                hasMore = true;
+                if (cachedTotal != null) {
+                    break;
+                }
+            }
+        }
+        if (cachedTotal != null) {
+            total = cachedTotal;
+        } else {
+            current.cacheTotal(filter, total);
+        }
+
+        String nextCursor = hasMore ? new Cursor(order, order.keyOf(last), last.id).encode() : null;
+        return new ProductSearchResult(items, total, nextCursor, current.version);
+    }
+
+    /**
+     * 重建索引（目录没有未处理的变更时直接返回）
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 当前快照，只有应用启动完成前的第一次查询会同步构建
+     */
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            return snapshot;
+        }
+        return current;
+    }
+
+    private void scheduleRefresh(long delayMillis) {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 在刷新线程中执行：目录有变更时整体重建（同时包含库存变更），否则只更新库存变化的产品
+     */
+    private void refresh() {
+        // 先清除标记，刷新过程中的新变更会再安排一次刷新
+        refreshScheduled.set(false);
+        rebuildLock.lock();
+        try {
+            doRebuild();
+            if (!pendingStockUpdates.isEmpty()) {
+                applyStockUpdates();
+            }
+        } catch (RuntimeException e) {
+            log.warn("刷新产品搜索索引失败，{}ms 后重试: {}", RETRY_DELAY_MILLIS, e.getMessage());
+            scheduleRefresh(RETRY_DELAY_MILLIS);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long observedChanges = changeCount.get();
+        if (snapshot != null && snapshot.changeCount == observedChanges) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        // 重建读取的是最新数据，之后再提交的库存变更会重新加入
+        pendingStockUpdates.clear();
+
+        Map<String, Long> popularity = new HashMap<>();
+        for (Object[] row : usageRepository.sumCountGroupByProduct()) {
+            popularity.put((String) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+
+        List<Product> products = productRepository.findByStatusOrderByCreatedAtDesc(1);
+        Entry[] docs = new Entry[products.size()];
+        for (int i = 0; i < docs.length; i++) {
+            Product product = products.get(i);
+            docs[i] = new Entry(product, popularity.getOrDefault(product.getId(), 0L));
+        }
+
+        Snapshot rebuilt = new Snapshot(versionSequence.incrementAndGet(), observedChanges, docs);
+        snapshot = rebuilt;
+        log.debug("产品搜索索引已重建，版本 {}，产品数 {}，词项数 {}，耗时 {}μs",
+                rebuilt.version, docs.length, rebuilt.postings.size(), (System.nanoTime() - startNanos) / 1000);
+    }
+
+    /**
+     * 把已提交的库存变更更新到快照：重新读取这些产品的库存和累计使用次数，
+     * 读取的是最新值而不是增量，重复更新或与重建交错都不会重复扣减
+     */
+    private void applyStockUpdates() {
+        Snapshot current = snapshot;
+        List<String> productIds = new ArrayList<>();
+        for (Iterator<String> iterator = pendingStockUpdates.iterator(); iterator.hasNext(); ) {
+            String productId = iterator.next();
+            iterator.remove();
+            // 不在索引中的产品（已下架）无需更新
+            if (current.docIndex.containsKey(productId)) {
+                productIds.add(productId);
+            }
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> popularity = new HashMap<>();
+        List<Product> products;
+        try {
+            for (Object[] row : usageRepository.sumCountGroupByProductIn(productIds)) {
+                popularity.put((String) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+            }
+            products = productRepository.findAllById(productIds);
+        } catch (RuntimeException e) {
+            // 放回待更新列表，重试时再读取
+            pendingStockUpdates.addAll(productIds);
+            throw e;
+        }
+        Map<Integer, Entry> updates = new HashMap<>();
+        for (Product product : products) {
+            int doc = current.docIndex.get(product.getId());
+            int stock = product.getStock() != null ? product.getStock() : 0;
+            updates.put(doc, current.docs[doc].withStock(stock, popularity.getOrDefault(product.getId(), 0L)));
+        }
+        snapshot = current.withUpdates(versionSequence.incrementAndGet(), updates);
+        log.debug("产品搜索索引已更新库存，版本 {}，产品 {}", snapshot.version, productIds);
+    }
+
+    private static long negate(long value) {
+        if (value == Long.MIN_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        if (value == Long.MAX_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        return -value;
+    }
+
+    /**
+     * 第一个 >= key 的下标
+     */
+    private static int lowerBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 第一个 > key 的下标
+     */
+    private static int upperBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 把关键字拆分成需要查询的词项：单字直接查询，多字查询所有相邻双字
+     */
+    private static Set<String> queryGrams(String term) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (term.length() == 1) {
+            grams.add(term);
+            return grams;
+        }
+        for (int i = 0; i + 1 < term.length(); i++) {
+            grams.add(term.substring(i, i + 2));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 索引快照，构建完成后不再修改
+     */
+    private static final class Snapshot {
+        final long version;
+        final long changeCount;
+        final Entry[] docs;
+        final Map<String, int[]> postings;
+        final Map<SortOrder, int[]> orders = new EnumMap<>(SortOrder.class);
+        final Map<SortOrder, long[]> keys = new EnumMap<>(SortOrder.class);
+        final Map<String, Integer> docIndex;
+        final Map<FilterKey, Integer> totals = new ConcurrentHashMap<>();
+
+        Snapshot(long version, long changeCount, Entry[] docs) {
+            this.version = version;
+            this.changeCount = changeCount;
+            this.docs = docs;
+            this.postings = buildPostings(docs);
+            this.docIndex = new HashMap<>(docs.length * 2);
+            for (int doc = 0; doc < docs.length; doc++) {
+                docIndex.put(docs[doc].id, doc);
+            }
+            for (SortOrder order : SortOrder.values()) {
+                Integer[] boxed = new Integer[docs.length];
+                for (int i = 0; i < boxed.length; i++) {
+                    boxed[i] = i;
+                }
+                Arrays.sort(boxed, Comparator.<Integer>comparingLong(doc -> order.keyOf(docs[doc]))
+                        .thenComparing(doc -> docs[doc].id));
+                int[] sorted = new int[boxed.length];
+                long[] sortedKeys = new long[boxed.length];
+                for (int i = 0; i < boxed.length; i++) {
+                    sorted[i] = boxed[i];
+                    sortedKeys[i] = order.keyOf(docs[boxed[i]]);
+                }
+                orders.put(order, sorted);
+                keys.put(order, sortedKeys);
+            }
+        }
+
+        /**
+         * 库存更新后的快照：倒排表和除热度外的有序数组与原快照共用（排序键不含库存）
+         */
+        private Snapshot(Snapshot base, long version, Entry[] docs) {
+            this.version = version;
+            this.changeCount = base.changeCount;
+            this.docs = docs;
+            this.postings = base.postings;
+            this.docIndex = base.docIndex;
+            this.orders.putAll(base.orders);
+            this.keys.putAll(base.keys);
+        }
+
+        Snapshot withUpdates(long version, Map<Integer, Entry> updates) {
+            Entry[] updatedDocs = docs.clone();
+            updates.forEach((doc, entry) -> updatedDocs[doc] = entry);
+            Snapshot updated = new Snapshot(this, version, updatedDocs);
+
+            int[] sorted = orders.get(SortOrder.POPULARITY).clone();
+            long[] sortedKeys = keys.get(SortOrder.POPULARITY).clone();
+            boolean moved = false;
+            for (Map.Entry<Integer, Entry> update : updates.entrySet()) {
+                int doc = update.getKey();
+                if (update.getValue().popularity != docs[doc].popularity) {
+                    move(sorted, sortedKeys, updatedDocs, doc, SortOrder.POPULARITY.keyOf(update.getValue()));
+                    moved = true;
+                }
+            }
+            if (moved) {
+                updated.orders.put(SortOrder.POPULARITY, sorted);
+                updated.keys.put(SortOrder.POPULARITY, sortedKeys);
+            }
+
+            // 不按库存筛选的总数不受影响，沿用原快照的缓存
+            totals.forEach((filter, total) -> {
+                if (!filter.inStockOnly()) {
+                    updated.totals.put(filter, total);
+                }
+            });
+            return updated;
+        }
+
+        /**
+         * 在有序数组中把一个产品移动到新排序键对应的位置
+         */
+        private static void move(int[] sorted, long[] sortedKeys, Entry[] docs, int doc, long key) {
+            int from = 0;
+            while (sorted[from] != doc) {
+                from++;
+            }
+            System.arraycopy(sorted, from + 1, sorted, from, sorted.length - from - 1);
+            System.arraycopy(sortedKeys, from + 1, sortedKeys, from, sortedKeys.length - from - 1);
+
+            int last = sorted.length - 1;
+            String id = docs[doc].id;
+            int low = 0;
+            int high = last;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Long.compare(sortedKeys[mid], key);
+                if (cmp == 0) {
+                    cmp = docs[sorted[mid]].id.compareTo(id);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(sorted, low, sorted, low + 1, last - low);
+            System.arraycopy(sortedKeys, low, sortedKeys, low + 1, last - low);
+            sorted[low] = doc;
+            sortedKeys[low] = key;
+        }
+
+        void cacheTotal(FilterKey filter, int total) {
+            if (totals.size() < MAX_CACHED_TOTALS) {
+                totals.put(filter, total);
+            }
+        }
+
+        private static Map<String, int[]> buildPostings(Entry[] docs) {
+            Map<String, List<Integer>> lists = new HashMap<>();
+            for (int doc = 0; doc < docs.length; doc++) {
+                Set<String> grams = new LinkedHashSet<>();
+                String text = docs[doc].searchText;
+                for (int i = 0; i < text.length(); i++) {
+                    char c = text.charAt(i);
+                    if (Character.isWhitespace(c)) {
+                        continue;
+                    }
+                    grams.add(String.valueOf(c));
+                    if (i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                        grams.add(text.substring(i, i + 2));
+                    }
+                }
+                for (String gram : grams) {
+                    lists.computeIfAbsent(gram, k -> new ArrayList<>()).add(doc);
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(lists.size() * 2);
+            lists.forEach((gram, list) -> postings.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+            return postings;
+        }
+
+        /**
+         * 关键字匹配，返回 null 表示不过滤
+         */
+        BitSet match(String keyword) {
+            String normalized = normalize(keyword).trim();
+            if (normalized.isEmpty()) {
+                return null;
+            }
+            BitSet result = null;
+            for (String term : normalized.split("\\s+")) {
+                BitSet termMatches = new BitSet(docs.length);
+                int[] candidates = null;
+                for (String gram : queryGrams(term)) {
+                    int[] posting = postings.get(gram);
+                    if (posting == null) {
+                        return termMatches;
+                    }
+                    candidates = candidates == null ? posting : intersect(candidates, posting);
+                }
+                for (int doc : candidates) {
+                    // 双字倒排可能误命中（如 "abc" 命中 "ab...bc"），用原文再校验一次
+                    if (docs[doc].searchText.contains(term)) {
+                        termMatches.set(doc);
+                    }
+                }
+                if (result == null) {
+                    result = termMatches;
+                } else {
+                    result.and(termMatches);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 游标之后第一条记录在有序数组中的下标
+         */
+        int positionAfter(SortOrder order, long key, String id) {
+            int[] sorted = orders.get(order);
+            long[] sortedKeys = keys.get(order);
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Long.compare(sortedKeys[mid], key);
+                if (cmp == 0) {
+                    cmp = docs[sorted[mid]].id.compareTo(id);
+                }
+                if (cmp <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int[] intersect(int[] a, int[] b) {
+            int[] out = new int[Math.min(a.length, b.length)];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+    }
+
+    /**
+     * 索引中的产品数据
+     */
+    private static final class Entry {
+        final String id;
+        final String name;
+        final int points;
+        final String description;
+        final int stock;
+        final String image;
+        final int monthlyLimit;
+        final int status;
+        final long createdAt;
+        final long popularity;
+        final String searchText;
+
+        Entry(Product product, long popularity) {
+            this.id = product.getId();
+            this.name = product.getName();
+            this.points = product.getPoints() != null ? product.getPoints() : 0;
+            this.description = product.getDescription();
+            this.stock = product.getStock() != null ? product.getStock() : 0;
+            this.image = product.getImage();
+            this.monthlyLimit = product.getMonthlyLimit() != null ? product.getMonthlyLimit() : 0;
+            this.status = product.getStatus() != null ? product.getStatus() : 1;
+            this.createdAt = product.getCreatedAt() != null
+                    ? product.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+            this.popularity = popularity;
+            this.searchText = normalize(name) + "\n" + normalize(description);
+        }
+
+        private Entry(Entry base, int stock, long popularity) {
+            this.id = base.id;
+            this.name = base.name;
+            this.points = base.points;
+            this.description = base.description;
+            this.stock = stock;
+            this.image = base.image;
+            this.monthlyLimit = base.monthlyLimit;
+            this.status = base.status;
+            this.createdAt = base.createdAt;
+            this.popularity = popularity;
+            this.searchText = base.searchText;
+        }
+
+        Entry withStock(int stock, long popularity) {
+            return new Entry(this, stock, popularity);
+        }
+
+        ProductDTO toDTO() {
+            ProductDTO dto = new ProductDTO();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setPoints(points);
+            dto.setDescription(description);
+            dto.setStock(stock);
+            dto.setImage(image);
+            dto.setMonthlyLimit(monthlyLimit);
+            dto.setStatus(status);
+            return dto;
+        }
+    }
+
+    /**
+     * 结果总数的缓存键：关键字 + 积分区间 + 是否只看有库存
+     */
+    private record FilterKey(String keyword, long lowPoints, long highPoints, boolean inStockOnly) {
+    }
+
+    /**
+     * 分页游标：排序方式 + 最后一条记录的排序键和ID
+     */
+    private record Cursor(SortOrder order, long key, String id) {
+
+        String encode() {
+            String raw = order.getCode() + "|" + key + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 3);
+                return new Cursor(SortOrder.fromCode(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("游标无效");
+            }
+        }
+    }
+}
@@ -3,14 +3,22 @@ package com.points.product.service;
 import com.points.common.dto.ProductDTO;
 import com.points.product.entity.Product;
 import com.points.product.entity.ProductUsage;
+import com.points.product.event.ProductCatalogChangedEvent;
+import com.points.product.event.ProductStockChangedEvent;
+import com.points.product.repository.ProductListItem;
 import com.points.product.repository.ProductRepository;
+import com.points.product.repository.ProductSummary;
 import com.points.product.repository.ProductUsageRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,15 +32,30 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductUsageRepository usageRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取所有上架产品
      */
     @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts(String userId) {
-        List<Product> products = productRepository.findByStatusOrderByCreatedAtDesc(1);
+        return getAllProducts(userId, ProductFields.ALL);
+    }
+
+    /**
+     * 获取所有上架产品（只返回指定字段）
+     * 不需要 description 时使用不含 TEXT 列的投影查询
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getAllProducts(String userId, ProductFields fields) {
+        List<? extends ProductSummary> products = fields.includes(ProductFields.DESCRIPTION)
+                ? productRepository.findListItemsByStatus(1)
+                : productRepository.findSummariesByStatus(1);
+        Map<String, Integer> usage = fields.includes(ProductFields.USED_THIS_MONTH)
+                ? getMonthlyUsage(userId)
+                : Collections.emptyMap();
         return products.stream()
-                .map(product -> convertToDTO(product, userId))
+                .map(product -> convertSummaryToDTO(product, fields, usage))
                 .collect(Collectors.toList());
     }
 
@@ -81,6 +104,7 @@ public class ProductService {
             product.setStock(product.getStock() - quantity);
             productRepository.save(product);
         }
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId));
     }
 
     private ProductDTO convertToDTO(Product product, String userId) {
@@ -118,12 +142,68 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<ProductDTO> getAllProductsForAdmin() {
-        List<Product> products = productRepository.findAllByOrderByCreatedAtDesc();
+        return getAllProductsForAdmin(ProductFields.ALL);
+    }
+
+    /**
+     * 获取所有产品（管理后台，只返回指定字段）
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getAllProductsForAdmin(ProductFields fields) {
+        List<? extends ProductSummary> products = fields.includes(ProductFields.DESCRIPTION)
+                ? productRepository.findAllListItems()
+                : productRepository.findAllSummaries();
         return products.stream()
-                .map(product -> convertToDTO(product, null))
+                .map(product -> convertSummaryToDTO(product, fields, Collections.emptyMap()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 一次查询用户本月所有产品的使用次数（key: productId）
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getMonthlyUsage(String userId) {
+        if (userId == null) {
+            return Collections.emptyMap();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Integer> usage = new HashMap<>();
+        for (ProductUsage item : usageRepository.findByUserAndMonth(userId, now.getYear(), now.getMonthValue())) {
+            usage.put(item.getProductId(), item.getCount());
+        }
+        return usage;
+    }
+
+    private ProductDTO convertSummaryToDTO(ProductSummary product, ProductFields fields, Map<String, Integer> usage) {
+        ProductDTO dto = new ProductDTO();
+        dto.setId(product.getId());
+        if (fields.includes(ProductFields.NAME)) {
+            dto.setName(product.getName());
+        }
+        if (fields.includes(ProductFields.POINTS)) {
+            dto.setPoints(product.getPoints());
+        }
+        if (fields.includes(ProductFields.DESCRIPTION) && product instanceof ProductListItem item) {
+            dto.setDescription(item.getDescription());
+        }
+        if (fields.includes(ProductFields.STOCK)) {
+            dto.setStock(product.getStock() != null ? product.getStock() : 0);
+        }
+        if (fields.includes(ProductFields.IMAGE)) {
+            dto.setImage(product.getImage());
+        }
+        if (fields.includes(ProductFields.MONTHLY_LIMIT)) {
+            dto.setMonthlyLimit(product.getMonthlyLimit() != null ? product.getMonthlyLimit() : 0);
+        }
+        if (fields.includes(ProductFields.STATUS)) {
+            dto.setStatus(product.getStatus() != null ? product.getStatus() : 1);
+        }
+        if (fields.includes(ProductFields.USED_THIS_MONTH)) {
+            dto.setUsedThisMonth(usage.getOrDefault(product.getId(), 0));
+        }
+        return dto;
+    }
+
     /**
      * 更新产品（管理后台）
      */
@@ -144,6 +224,7 @@ public class ProductService {
         if (request.getStatus() != null) product.setStatus(request.getStatus());
         
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(productId));
         return convertToDTO(product, null);
     }
 
@@ -160,6 +241,7 @@ public class ProductService {
         Product product = productOpt.get();
         product.setStock(stock);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductStockChangedEvent(productId));
         return convertToDTO(product, null);
     }
 
@@ -176,6 +258,7 @@ public class ProductService {
         Product product = productOpt.get();
         product.setStatus(status);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(productId));
         return convertToDTO(product, null);
     }
 
@@ -184,6 +267,17 @@ public class ProductService {
      */
     @Transactional
     public ProductDTO createProduct(com.points.product.controller.ProductController.ProductCreateRequest request) {
+        Product product = buildNewProduct(request);
+        product = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(product.getId()));
+        return convertToDTO(product, null);
+    }
+
+    /**
+     * 校验创建请求并构建产品实体（未保存）
+     * 单个创建和批量导入共用同一套校验规则
+     */
+    public Product buildNewProduct(com.points.product.controller.ProductController.ProductCreateRequest request) {
         // 验证必填字段
         if (request.getName() == null || request.getName().trim().isEmpty()) {
             throw new RuntimeException("产品名称不能为空");
@@ -207,8 +301,6 @@ public class ProductService {
         product.setImage(request.getImage() != null ? request.getImage().trim() : "");
         product.setMonthlyLimit(request.getMonthlyLimit() != null ? request.getMonthlyLimit() : 0);
         product.setStatus(request.getStatus() != null ? request.getStatus() : 1); // 默认上架
-
-        product = productRepository.save(product);
-        return convertToDTO(product, null);
+        return product;
     }
 }
@@ -51,51 +51,43 @@ export function PointsExchange({ onNavigateToDetail, onBack }: PointsExchangePro
   const [currentPoints, setCurrentPoints] = useState(0);
   const [isLoadingData, setIsLoadingData] = useState(true);
 
-  // 加载产品列表和积分余额
+  // 加载产品列表和积分余额（首页聚合接口一次返回）
   useEffect(() => {
     const loadData = async () => {
       try {
         setIsLoadingData(true);
-        
-        // 分别加载产品列表和积分余额，避免一个失败影响另一个
-        const loadProducts = async () => {
-          try {
-            const productsData = await productApi.getProducts();
-            // 转换数据格式，确保id为字符串
-            const formattedProducts = productsData.map((p: any) => ({
-              ...p,
-              id: String(p.id),
-            }));
-            setProducts(formattedProducts);
-          } catch (error) {
-            console.error("加载产品列表失败:", error);
-            toast.error("加载产品列表失败", {
-              description: error instanceof Error ? error.message : "未知错误",
-            });
-          }
-        };
-        
-        const loadBalance = async () => {
-          try {
-            const balance = await pointsApi.getBalance();
-            setCurrentPoints(balance);
-          } catch (error) {
-            console.error("加载积分余额失败:", error);
-            // 积分余额加载失败不影响页面显示，只显示提示
-            toast.warning("加载积分余额失败", {
-              description: error instanceof Error ? error.message : "未知错误",
-            });
-            setCurrentPoints(0); // 设置为0，避免显示undefined
-          }
-        };
-        
-        // 并行加载，但各自处理错误
-        await Promise.allSettled([
-          loadProducts(),
-          loadBalance(),
-        ]);
+        const home = await pointsApi.getHome();
+
+        // 各部分单独处理，一个失败不影响另一个
+        if (home.products) {
+          // 转换数据格式，确保id为字符串
+          const formattedProducts = home.products.map((p: any) => ({
+            ...p,
+            id: String(p.id),
+          }));
+          setProducts(formattedProducts);
+        } else {
+          console.error("加载产品列表失败:", home.errors.products);
+          toast.error("加载产品列表失败", {
+            description: home.errors.products || "未知错误",
+          });
+        }
+
+        if (home.balance !== null) {
+          setCurrentPoints(home.balance);
+        } else {
+          console.error("加载积分余额失败:", home.errors.balance);
+          // 积分余额加载失败不影响页面显示，只显示提示
+          toast.warning("加载积分余额失败", {
+            description: home.errors.balance || "未知错误",
+          });
+          setCurrentPoints(0); // 设置为0，避免显示undefined
+        }
       } catch (error) {
         console.error("加载数据失败:", error);
+        toast.error("加载数据失败", {
+          description: error instanceof Error ? error.message : "未知错误",
+        });
       } finally {
         setIsLoadingData(false);
       }
@@ -14,6 +14,40 @@ const setToken = (token: string): void => {
 // 移除Token
 const removeToken = (): void => {
   localStorage.removeItem('token');
+  localStorage.removeItem('refreshToken');
+};
+
+// 访问Token有效期较短，过期后用刷新Token换取新Token；并发请求共用同一次刷新
+let refreshing: Promise<boolean> | null = null;
+
+const refreshToken = (): Promise<boolean> => {
+  if (!refreshing) {
+    refreshing = (async () => {
+      const current = localStorage.getItem('refreshToken');
+      if (!current) {
+        return false;
+      }
+      try {
+        const response = await fetch(`${API_BASE_URL}/api/auth/refresh`, {
+          method: 'POST',
+          headers: { 'Content-Type': 'application/json;charset=UTF-8' },
+          body: JSON.stringify({ refreshToken: current }),
+        });
+        const data = await response.json();
+        if (data.code !== 200) {
+          return false;
+        }
+        setToken(data.data.token);
+        localStorage.setItem('refreshToken', data.data.refreshToken);
+        return true;
+      } catch {
+        return false;
+      }
+    })().finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
 };
 
 // 统一响应类型
@@ -22,12 +56,14 @@ interface ApiResponse<T> {
   message: string;
   data: T;
   timestamp: number;
+  traceId?: string; // 错误响应的链路追踪ID，反馈问题时提供
 }
 
 // 通用请求方法
 const request = async <T>(
   url: string,
-  options: RequestInit = {}
+  options: RequestInit = {},
+  retried = false
 ): Promise<T> => {
   const token = getToken();
   const headers: HeadersInit = {
@@ -49,15 +85,18 @@ const request = async <T>(
     const data: ApiResponse<T> = await response.json();
     console.log('API Response:', url, data);
 
-    // Token过期，清除并跳转登录
+    // Token过期，先尝试刷新；刷新失败时清除并跳转登录
     if (data.code === 401) {
+      if (!retried && token && await refreshToken()) {
+        return request<T>(url, options, true);
+      }
       removeToken();
       throw new Error(data.message || '登录已过期，请重新登录');
     }
 
     if (!response.ok || data.code !== 200) {
       const errorMessage = data.message || data.error || `HTTP错误: ${response.status}`;
-      console.error('API Error:', url, response.status, errorMessage);
+      console.error('API Error:', url, response.status, errorMessage, data.traceId);
       throw new Error(errorMessage);
     }
 
@@ -90,6 +129,7 @@ export const authApi = {
     });
     
     setToken(response.token);
+    localStorage.setItem('refreshToken', response.refreshToken);
     return response;
   },
 
@@ -106,6 +146,21 @@ export const pointsApi = {
     return request<number>('/api/points/balance');
   },
 
+  // 首页数据（余额、产品列表、最近积分明细一次返回，失败的部分为 null，原因见 errors）
+  // 积分兑换页首次加载使用，之后只刷新变化的部分
+  getHome: async (
+    type: 'all' | 'earned' | 'spent' = 'all',
+    timeRange: '30days' | '3months' | '12months' | '2years' = '30days'
+  ) => {
+    return request<{
+      balance: number | null;
+      products: any[] | null;
+      records: any[] | null;
+      partial: boolean;
+      errors: Record<string, string>;
+    }>(`/api/home?type=${type}&timeRange=${timeRange}`);
+  },
+
   // 获取积分明细
   getRecords: async (
     type: 'all' | 'earned' | 'spent' = 'all',